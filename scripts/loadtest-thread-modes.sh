@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Comparación de carga entre el modo de hilos de plataforma y el modo de hilos virtuales.
+# Requiere: docker, hey (https://github.com/rakyll/hey) y una base de datos accesible por el backend.
+#
+# Uso: ./scripts/loadtest-thread-modes.sh [concurrencia] [duración]
+#   CONCURRENCY=200 DURATION=60s ./scripts/loadtest-thread-modes.sh
+#
+# Variables opcionales:
+#   TOKEN        JWT de un candidato para incluir la subida de videos en la prueba
+#   VIDEO_FILE   video de prueba para /api/clipers/upload/stream (por defecto no se sube nada)
+#   ENV_FILE     archivo de variables para los contenedores (por defecto .env)
+
+set -euo pipefail
+
+CONCURRENCY="${1:-${CONCURRENCY:-200}}"
+DURATION="${2:-${DURATION:-60s}}"
+ENV_FILE="${ENV_FILE:-.env}"
+PORT=18080
+RESULTS_DIR="loadtest-results/$(date +%Y%m%d-%H%M%S)"
+
+mkdir -p "$RESULTS_DIR"
+
+run_mode() {
+    local mode="$1"
+    local image="clipers-backend:$mode"
+    local container="clipers-loadtest-$mode"
+
+    echo "=== Modo $mode ==="
+    docker build --build-arg THREAD_MODE="$mode" -t "$image" .
+    docker rm -f "$container" >/dev/null 2>&1 || true
+    docker run -d --name "$container" --env-file "$ENV_FILE" -p "$PORT:8080" "$image" >/dev/null
+
+    echo "Esperando a que la aplicación esté lista..."
+    until curl -sf "http://localhost:$PORT/actuator/health" >/dev/null; do sleep 2; done
+
+    # Calentamiento para que el JIT y el pool de conexiones se estabilicen
+    hey -z 15s -c 20 "http://localhost:$PORT/api/clipers/public?page=0&size=12" >/dev/null
+
+    hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:$PORT/api/clipers/public?page=0&size=12" \
+        > "$RESULTS_DIR/$mode-clipers-public.txt"
+    hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:$PORT/api/jobs/public?page=0&size=12" \
+        > "$RESULTS_DIR/$mode-jobs-public.txt"
+
+    if [[ -n "${TOKEN:-}" && -n "${VIDEO_FILE:-}" ]]; then
+        hey -z "$DURATION" -c "$((CONCURRENCY / 10 + 1))" -m POST \
+            -H "Authorization: Bearer $TOKEN" -H "X-File-Name: $(basename "$VIDEO_FILE")" \
+            -T "application/octet-stream" -D "$VIDEO_FILE" \
+            "http://localhost:$PORT/api/clipers/upload/stream?title=loadtest&description=loadtest" \
+            > "$RESULTS_DIR/$mode-upload-stream.txt"
+    fi
+
+    # Hilos virtuales fijados a su portador durante la prueba (solo en modo virtual)
+    docker logs "$container" 2>&1 | grep -A5 "pinned" > "$RESULTS_DIR/$mode-pinning.txt" || true
+    docker rm -f "$container" >/dev/null
+}
+
+run_mode platform
+run_mode virtual
+
+echo
+echo "=== Resumen (peticiones/seg y latencias p50/p99) ==="
+for file in "$RESULTS_DIR"/*.txt; do
+    case "$file" in *-pinning.txt) continue ;; esac
+    rps=$(grep "Requests/sec" "$file" | awk '{print $2}')
+    p50=$(grep "50% in" "$file" | awk '{print $3}')
+    p99=$(grep "99% in" "$file" | awk '{print $3}')
+    printf "%-40s %10s req/s  p50 %8ss  p99 %8ss\n" "$(basename "$file" .txt)" "$rps" "$p50" "$p99"
+done
+echo "Resultados completos en $RESULTS_DIR"
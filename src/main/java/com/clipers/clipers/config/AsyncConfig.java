@@ -0,0 +1,89 @@
+package com.clipers.clipers.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuración de ejecución en segundo plano
+ * Pools acotados para el trabajo que no debe ocupar los hilos de Tomcat.
+ * Con el perfil "virtual" (spring.threads.virtual.enabled=true, requiere Java 21) el trabajo
+ * bloqueante corre en hilos virtuales; la concurrencia la siguen limitando las colas que lo despachan
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Value("${video.processing.workers:4}")
+    private int videoProcessingWorkers;
+
+    @Value("${matching.parallelism:2}")
+    private int matchingParallelism;
+
+    @Value("${matching.queue-capacity:100}")
+    private int matchingQueueCapacity;
+
+    @Value("${matching.bulk.parallelism:0}")
+    private int bulkMatchingParallelism;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean(name = "videoProcessingExecutor")
+    public TaskExecutor videoProcessingExecutor() {
+        if (virtualThreads) {
+            // VideoProcessingQueue nunca tiene más de "workers" tareas en curso
+            return new VirtualThreadTaskExecutor("video-processing-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(videoProcessingWorkers);
+        executor.setMaxPoolSize(videoProcessingWorkers);
+        // La cola nunca crece más que los workers: VideoProcessingQueue solo reclama lo que puede ejecutar
+        executor.setQueueCapacity(videoProcessingWorkers);
+        executor.setThreadNamePrefix("video-processing-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool de matching: paralelismo fijo y cola acotada. Si la cola está llena la tarea se rechaza y
+     * JobMatchingExecutor la aparta (la última por vacante o candidato) hasta que haya sitio: quien publica
+     * nunca ejecuta el matching en su hilo (un listener AFTER_COMMIT o una petición HTTP)
+     */
+    @Bean(name = "matchingExecutor")
+    public ThreadPoolTaskExecutor matchingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(matchingParallelism);
+        executor.setMaxPoolSize(matchingParallelism);
+        executor.setQueueCapacity(matchingQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("matching-");
+        if (virtualThreads) {
+            // Con hilos virtuales el pool solo limita la concurrencia; no reserva hilos de plataforma
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("matching-").getVirtualThreadFactory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool fork-join del rematch masivo: trabajo de CPU puro (puntuar pares en memoria), así que usa hilos
+     * de plataforma aunque esté activo el perfil "virtual". Con paralelismo 0 se usa un hilo por núcleo
+     */
+    @Bean(name = "bulkMatchingPool", destroyMethod = "shutdownNow")
+    public ForkJoinPool bulkMatchingPool() {
+        int parallelism = bulkMatchingParallelism > 0
+                ? bulkMatchingParallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+}
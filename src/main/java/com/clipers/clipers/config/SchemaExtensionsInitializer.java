@@ -0,0 +1,176 @@
+package com.clipers.clipers.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Objetos de esquema que Hibernate (ddl-auto) no gestiona: índices únicos, índices especializados, etc.
+ * Corre al arrancar, después de que Hibernate haya actualizado las tablas. Cada paso es idempotente
+ * y un fallo se registra sin impedir el arranque
+ */
+@Component
+public class SchemaExtensionsInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SchemaExtensionsInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ensureJobMatchUniqueIndex();
+        createIndex("CREATE INDEX IF NOT EXISTS ix_job_matches_job_score ON job_matches (job_id, score DESC, user_id)");
+        createIndex("CREATE INDEX IF NOT EXISTS ix_jobs_place_active ON jobs (place_id) WHERE is_active = true");
+        // Feeds por cursor (createdAt DESC, id DESC)
+        createIndex("CREATE INDEX IF NOT EXISTS ix_posts_created_id ON posts (created_at DESC, id DESC)");
+        createIndex("CREATE INDEX IF NOT EXISTS ix_clipers_done_created_id ON clipers (created_at DESC, id DESC) WHERE status = 'DONE'");
+        // Hilos de comentarios por keyset y recuento de comentarios por post (FeedEnricher)
+        createIndex("CREATE INDEX IF NOT EXISTS ix_comments_post_created ON comments (post_id, created_at, id)");
+        ensureFullTextSearch();
+        ensureSkillLookupIndexes();
+    }
+
+    private void createIndex(String ddl) {
+        try {
+            jdbcTemplate.execute(ddl);
+        } catch (Exception e) {
+            System.err.println("Error creando índice (" + ddl + "): " + e.getMessage());
+        }
+    }
+
+    /**
+     * Índice único (job_id, user_id) en job_matches, necesario para el upsert de JobMatchWriter
+     * Si el índice aún no existe se eliminan antes los duplicados, conservando el match más reciente
+     */
+    private void ensureJobMatchUniqueIndex() {
+        try {
+            String existing = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass('ux_job_matches_job_user')::text", String.class);
+            if (existing != null) {
+                return;
+            }
+
+            String duplicates = "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY job_id, user_id " +
+                    "ORDER BY created_at DESC, id) AS rn FROM job_matches) d WHERE d.rn > 1";
+            jdbcTemplate.update("DELETE FROM job_match_skills WHERE job_match_id IN (" + duplicates + ")");
+            int removed = jdbcTemplate.update("DELETE FROM job_matches WHERE id IN (" + duplicates + ")");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_job_matches_job_user ON job_matches (job_id, user_id)");
+            System.out.println("Índice único de job_matches creado (" + removed + " duplicados eliminados)");
+        } catch (Exception e) {
+            System.err.println("Error creando el índice único de job_matches: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Búsqueda a texto completo (ver FullTextQuery): configuraciones de texto sin tildes, una columna
+     * tsvector generada por tabla buscable y su índice GIN. Añadir la columna reescribe la tabla una vez;
+     * después PostgreSQL la mantiene en cada INSERT/UPDATE sin que la aplicación intervenga
+     */
+    private void ensureFullTextSearch() {
+        boolean unaccent = createExtension("unaccent");
+        if (!unaccent) {
+            System.err.println("Sin unaccent la búsqueda a texto completo distinguirá tildes");
+        }
+        ensureTextSearchConfiguration("clipers_es", "spanish", unaccent ? "unaccent, spanish_stem" : null);
+        ensureTextSearchConfiguration("clipers_simple", "simple", unaccent ? "unaccent, simple" : null);
+
+        ensureSearchVector("jobs", weighted("clipers_es", "title", 'A') + " || " + weighted("clipers_es", "description", 'B'));
+        // Las vacantes también se encuentran por el nombre de la empresa: índice de expresión sobre el nombre
+        createIndex("CREATE INDEX IF NOT EXISTS ix_companies_name_search ON companies " +
+                "USING GIN (to_tsvector('clipers_es'::regconfig, coalesce(name, '')))");
+        ensureSearchVector("companies", weighted("clipers_es", "name", 'A') + " || " + weighted("clipers_es", "industry", 'B')
+                + " || " + weighted("clipers_es", "description", 'C'));
+        ensureSearchVector("posts", weighted("clipers_es", "content", 'A'));
+        ensureSearchVector("clipers", weighted("clipers_es", "title", 'A') + " || " + weighted("clipers_es", "description", 'B'));
+        // El parser trata "ana@x.com" como un único token de tipo email, que los prefijos de FullTextQuery
+        // (ana:* & x:* & com:*) nunca encuentran: el email se indexa partido por los mismos separadores
+        ensureSearchVector("users", weighted("clipers_simple", "first_name", 'A') + " || " + weighted("clipers_simple", "last_name", 'A')
+                + " || " + weighted("clipers_simple", "translate(email, '@._-', '    ')", 'B'), "v2");
+        ensureSearchVector("ats_profiles", weighted("clipers_es", "summary", 'A'));
+    }
+
+    /**
+     * Búsqueda por skill (SkillDictionary.search): índice de trigramas sobre los términos del diccionario para
+     * subcadenas y parecidos, e índices sobre el nombre normalizado en las tablas que guardan skills, que es
+     * por donde se cruzan los ids de los términos encontrados
+     */
+    private void ensureSkillLookupIndexes() {
+        if (createExtension("pg_trgm")) {
+            createIndex("CREATE INDEX IF NOT EXISTS ix_skill_terms_name_trgm ON skill_terms USING GIN (name gin_trgm_ops)");
+        }
+        createIndex("CREATE INDEX IF NOT EXISTS ix_skill_terms_canonical ON skill_terms (canonical_id)");
+        createIndex("CREATE INDEX IF NOT EXISTS ix_job_skills_skill ON job_skills (lower(skill))");
+        createIndex("CREATE INDEX IF NOT EXISTS ix_cliper_skills_skill ON cliper_skills (lower(skill))");
+        createIndex("CREATE INDEX IF NOT EXISTS ix_skills_name ON skills (lower(name))");
+    }
+
+    private boolean createExtension(String name) {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS " + name);
+            return true;
+        } catch (Exception e) {
+            System.err.println("Extensión " + name + " no disponible: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Copia de una configuración de PostgreSQL que, si hay unaccent, quita las tildes antes del diccionario
+    private void ensureTextSearchConfiguration(String name, String parent, String dictionaries) {
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_ts_config WHERE cfgname = ?", Integer.class, name);
+            if (existing != null && existing > 0) {
+                return;
+            }
+            jdbcTemplate.execute("CREATE TEXT SEARCH CONFIGURATION " + name + " (COPY = " + parent + ")");
+            if (dictionaries != null) {
+                jdbcTemplate.execute("ALTER TEXT SEARCH CONFIGURATION " + name
+                        + " ALTER MAPPING FOR hword, hword_part, word WITH " + dictionaries);
+            }
+        } catch (Exception e) {
+            System.err.println("Error creando la configuración de texto " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void ensureSearchVector(String table, String expression) {
+        ensureSearchVector(table, expression, null);
+    }
+
+    /**
+     * @param version si no es null se guarda como comentario de la columna; una columna creada con otra
+     *                versión (otra expresión) se elimina y se vuelve a crear, junto con su índice
+     */
+    private void ensureSearchVector(String table, String expression, String version) {
+        try {
+            if (version != null) {
+                List<String> existing = jdbcTemplate.queryForList("SELECT col_description(a.attrelid, a.attnum) " +
+                        "FROM pg_attribute a WHERE a.attrelid = to_regclass(?) AND a.attname = 'search_vector' " +
+                        "AND NOT a.attisdropped", String.class, table);
+                if (!existing.isEmpty() && !version.equals(existing.get(0))) {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN IF EXISTS search_vector");
+                }
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (" + expression + ") STORED");
+            if (version != null) {
+                jdbcTemplate.execute("COMMENT ON COLUMN " + table + ".search_vector IS '" + version + "'");
+            }
+        } catch (Exception e) {
+            System.err.println("Error creando la columna de búsqueda de " + table + ": " + e.getMessage());
+            return;
+        }
+        createIndex("CREATE INDEX IF NOT EXISTS ix_" + table + "_search ON " + table + " USING GIN (search_vector)");
+    }
+
+    // column puede ser también una expresión sobre columnas de la tabla
+    private static String weighted(String configuration, String column, char weight) {
+        return "setweight(to_tsvector('" + configuration + "'::regconfig, coalesce(" + column + ", '')), '" + weight + "')";
+    }
+}
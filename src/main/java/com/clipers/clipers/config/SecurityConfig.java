@@ -74,6 +74,7 @@ public class SecurityConfig {
                 
                 // Admin only endpoints
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // Company specific endpoints
                 .requestMatchers("/api/jobs/create").hasRole("COMPANY")
@@ -82,6 +83,7 @@ public class SecurityConfig {
                 
                 // Candidate specific endpoints
                 .requestMatchers("/api/clipers/upload").hasRole("CANDIDATE")
+                .requestMatchers("/api/clipers/upload/stream").hasRole("CANDIDATE")
                 .requestMatchers("/api/profile/ats").hasRole("CANDIDATE")
                 
                 // All other endpoints require authentication
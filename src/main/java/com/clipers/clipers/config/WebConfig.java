@@ -1,8 +1,6 @@
 package com.clipers.clipers.config;
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,9 +14,4 @@ public class WebConfig implements WebMvcConfigurer {
                 .addResourceLocations("file:./uploads/")
                 .setCachePeriod(3600); // Cache por 1 hora
     }
-
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-}
\ No newline at end of file
+}
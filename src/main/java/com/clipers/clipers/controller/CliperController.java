@@ -3,9 +3,10 @@ package com.clipers.clipers.controller;
 import com.clipers.clipers.entity.Cliper;
 import com.clipers.clipers.service.CliperService;
 import com.clipers.clipers.dto.CliperDTO;
+import com.clipers.clipers.dto.FeedCursor;
 import com.clipers.clipers.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -20,23 +21,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-
 @RestController
 @RequestMapping("/api/clipers")
 @CrossOrigin(origins = "*")
 public class CliperController {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+
     private final CliperService cliperService;
     private final UserRepository userRepository;
 
-    @Value("${file.upload.base.url}")
-    private String fileUploadBaseUrl;
-
     @Autowired
     public CliperController(CliperService cliperService, UserRepository userRepository) {
         this.cliperService = cliperService;
@@ -51,12 +45,33 @@ public class CliperController {
             @RequestParam("description") String description) {
         try {
             String userId = getCurrentUserId();
+            Integer duration = extractVideoDuration();
 
-            // Simular guardado de archivo y obtener URL
-            String videoUrl = saveVideoFile(videoFile);
-            Integer duration = extractVideoDuration(videoFile);
+            // El servicio guarda el archivo una sola vez
+            Cliper cliper = cliperService.createCliper(userId, title, description, null, duration, videoFile);
+            return ResponseEntity.ok(new CliperDTO(cliper));
+        } catch (Exception e) {
+            throw new RuntimeException("Error al subir cliper: " + e.getMessage(), e);
+        }
+    }
 
-            Cliper cliper = cliperService.createCliper(userId, title, description, videoUrl, duration, videoFile);
+    /**
+     * Subida en streaming: el cuerpo de la petición es el video en bruto y se escribe
+     * directamente en su ubicación final, sin el archivo temporal del multipart
+     */
+    @PostMapping(value = "/upload/stream", consumes = {"application/octet-stream", "video/*"})
+    @PreAuthorize("hasRole('CANDIDATE')")
+    public ResponseEntity<CliperDTO> uploadCliperStream(
+            HttpServletRequest request,
+            @RequestParam("title") String title,
+            @RequestParam("description") String description,
+            @RequestHeader(value = "X-File-Name", required = false) String fileName) {
+        try {
+            String userId = getCurrentUserId();
+            Integer duration = extractVideoDuration();
+
+            Cliper cliper = cliperService.createCliperFromStream(userId, title, description, duration,
+                    request.getInputStream(), fileName);
             return ResponseEntity.ok(new CliperDTO(cliper));
         } catch (Exception e) {
             throw new RuntimeException("Error al subir cliper: " + e.getMessage(), e);
@@ -186,6 +201,41 @@ public class CliperController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Clipers procesados paginados por cursor, sin COUNT ni OFFSET
+     * El cursor es opaco para el cliente: se devuelve en "nextCursor" y se reenvía tal cual
+     */
+    @GetMapping("/public/cursor")
+    public ResponseEntity<Map<String, Object>> getProcessedClipersByCursor(
+            @RequestParam(defaultValue = "12") int limit,
+            @RequestParam(required = false) String cursor) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+
+        FeedCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = FeedCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        List<Cliper> clipers = cliperService.findProcessedClipersPage(after, pageSize);
+        boolean hasMore = clipers.size() > pageSize;
+        if (hasMore) {
+            clipers = clipers.subList(0, pageSize);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("clipers", clipers.stream().map(CliperDTO::new).toList());
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            Cliper last = clipers.get(clipers.size() - 1);
+            response.put("nextCursor", new FeedCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Page<CliperDTO>> searchClipers(
             @RequestParam String query, Pageable pageable) {
@@ -229,6 +279,19 @@ public class CliperController {
         }
     }
 
+    @PostMapping("/{id}/retry")
+    @PreAuthorize("hasRole('CANDIDATE')")
+    public ResponseEntity<CliperDTO> retryCliper(@PathVariable String id) {
+        try {
+            cliperService.retryProcessing(id);
+            return cliperService.findById(id)
+                    .map(cliper -> ResponseEntity.ok(new CliperDTO(cliper)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al reintentar cliper: " + e.getMessage(), e);
+        }
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<CliperDTO>> getClipersByStatus(@PathVariable String status) {
         try {
@@ -253,29 +316,7 @@ public class CliperController {
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + email));
     }
 
-    private String saveVideoFile(MultipartFile videoFile) {
-        try {
-            // Crear directorio si no existe
-            Path uploadDir = Paths.get("./uploads/videos");
-            if (!Files.exists(uploadDir)) {
-                Files.createDirectories(uploadDir);
-            }
-
-            // Generar nombre único para el archivo
-            String fileName = "video_" + System.currentTimeMillis() + "_" + videoFile.getOriginalFilename();
-            Path filePath = uploadDir.resolve(fileName);
-
-            // Guardar el archivo
-            Files.copy(videoFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Devolver URL completa para que el frontend pueda acceder
-            return fileUploadBaseUrl + "/uploads/videos/" + fileName;
-        } catch (IOException e) {
-            throw new RuntimeException("Error al guardar el archivo de video: " + e.getMessage());
-        }
-    }
-
-    private Integer extractVideoDuration(MultipartFile videoFile) {
+    private Integer extractVideoDuration() {
         // Simular extracción de duración
         // En producción, usaría FFmpeg para obtener la duración real
         return 30 + (int)(Math.random() * 120); // 30-150 segundos
@@ -1,12 +1,17 @@
 package com.clipers.clipers.controller;
 
+import com.clipers.clipers.dto.BulkRematchReport;
+import com.clipers.clipers.dto.CandidateRankingDTO;
 import com.clipers.clipers.dto.UserDTO;
 import com.clipers.clipers.dto.JobDTO;
 import com.clipers.clipers.entity.Job;
 import com.clipers.clipers.entity.JobMatch;
 import com.clipers.clipers.service.AuthService;
+import com.clipers.clipers.service.BulkMatchingEngine;
 import com.clipers.clipers.service.JobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +21,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,13 +32,17 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class JobController {
 
+    private static final int MAX_RANKING_PAGE_SIZE = 100;
+
     private final JobService jobService;
     private final AuthService authService;
+    private final BulkMatchingEngine bulkMatchingEngine;
 
     @Autowired
-    public JobController(JobService jobService, AuthService authService) {
+    public JobController(JobService jobService, AuthService authService, BulkMatchingEngine bulkMatchingEngine) {
         this.jobService = jobService;
         this.authService = authService;
+        this.bulkMatchingEngine = bulkMatchingEngine;
     }
 
     @PostMapping
@@ -79,7 +89,8 @@ public class JobController {
             @RequestParam(required = false) Integer salaryMin,
             @RequestParam(required = false) Integer salaryMax,
             @RequestParam(required = false) String industry,
-            @RequestParam(required = false) List<String> skills) {
+            @RequestParam(required = false) List<String> skills,
+            @RequestParam(required = false) Double radiusKm) {
         
         Pageable pageable = PageRequest.of(page, size);
         Page<Job> jobsPage;
@@ -88,7 +99,7 @@ public class JobController {
             jobsPage = jobService.searchActiveJobs(search, pageable);
         } else if (hasFilters(location, type, salaryMin, salaryMax)) {
             Job.JobType jobType = type != null ? Job.JobType.valueOf(type.toUpperCase()) : null;
-            jobsPage = jobService.findJobsWithFilters(jobType, location, salaryMin, salaryMax, pageable);
+            jobsPage = jobService.findJobsWithFilters(jobType, location, salaryMin, salaryMax, radiusKm, pageable);
         } else {
             jobsPage = jobService.findActiveJobs(pageable);
         }
@@ -144,10 +155,11 @@ public class JobController {
             @RequestParam(required = false) String location,
             @RequestParam(required = false) Integer minSalary,
             @RequestParam(required = false) Integer maxSalary,
+            @RequestParam(required = false) Double radiusKm,
             Pageable pageable) {
         
         Job.JobType jobType = type != null ? Job.JobType.valueOf(type.toUpperCase()) : null;
-        Page<Job> jobs = jobService.findJobsWithFilters(jobType, location, minSalary, maxSalary, pageable);
+        Page<Job> jobs = jobService.findJobsWithFilters(jobType, location, minSalary, maxSalary, radiusKm, pageable);
         return ResponseEntity.ok(jobs);
     }
 
@@ -218,6 +230,62 @@ public class JobController {
         return ResponseEntity.ok(matches);
     }
 
+    /**
+     * Ranking de candidatos de una vacante, mejores primero, paginado por cursor
+     * El cursor es opaco para el cliente: se devuelve en "nextCursor" y se reenvía tal cual
+     */
+    @GetMapping("/{jobId}/ranking")
+    @PreAuthorize("hasRole('COMPANY')")
+    public ResponseEntity<Map<String, Object>> getRankingForJob(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_RANKING_PAGE_SIZE));
+
+        Double afterScore = null;
+        String afterUserId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            int separator = cursor.indexOf('_');
+            try {
+                afterScore = Double.valueOf(cursor.substring(0, separator));
+                afterUserId = cursor.substring(separator + 1);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        List<CandidateRankingDTO> ranking = jobService.getRanking(jobId, pageSize, afterScore, afterUserId);
+        boolean hasMore = ranking.size() > pageSize;
+        if (hasMore) {
+            ranking = ranking.subList(0, pageSize);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("candidates", ranking);
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            CandidateRankingDTO last = ranking.get(ranking.size() - 1);
+            response.put("nextCursor", last.getScore() + "_" + last.getUserId());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Rematch masivo de todas las vacantes activas (por ejemplo tras ajustar los pesos del matching)
+     * Con el mismo asOf (el del informe si no se indicó), dos ejecuciones sobre los mismos datos guardan lo mismo
+     * en el mismo orden
+     */
+    @PostMapping("/admin/rematch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkRematchReport> rematchAllJobs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        try {
+            return ResponseEntity.ok(bulkMatchingEngine.rematchAll(asOf));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     @PostMapping("/{jobId}/apply")
     public ResponseEntity<Void> applyToJob(@PathVariable String jobId) {
         try {
@@ -1,13 +1,21 @@
 package com.clipers.clipers.controller;
 
+import com.clipers.clipers.dto.CommentDTO;
+import com.clipers.clipers.dto.FeedCursor;
+import com.clipers.clipers.dto.FeedPage;
+import com.clipers.clipers.dto.FeedPostDTO;
 import com.clipers.clipers.entity.Comment;
 import com.clipers.clipers.entity.Post;
 import com.clipers.clipers.entity.User;
 import com.clipers.clipers.security.CustomUserDetailsService.CustomUserPrincipal;
+import com.clipers.clipers.service.CommentThreadWriter;
+import com.clipers.clipers.service.FeedCache;
+import com.clipers.clipers.service.FeedEnricher;
 import com.clipers.clipers.service.PostService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,11 +23,13 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,11 +44,23 @@ import java.util.UUID;
 @CrossOrigin(origins = "*")
 public class PostController {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    private static final int MAX_COMMENTS_PAGE_SIZE = 100;
+
     private final PostService postService;
+    private final FeedCache feedCache;
+    private final FeedEnricher feedEnricher;
+    private final CommentThreadWriter commentThreadWriter;
 
     @Autowired
-    public PostController(PostService postService) {
+    public PostController(PostService postService,
+                          FeedCache feedCache,
+                          FeedEnricher feedEnricher,
+                          CommentThreadWriter commentThreadWriter) {
         this.postService = postService;
+        this.feedCache = feedCache;
+        this.feedEnricher = feedEnricher;
+        this.commentThreadWriter = commentThreadWriter;
     }
 
     @PostMapping
@@ -119,29 +141,93 @@ public class PostController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Las primeras páginas salen ya serializadas de FeedCache
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getFeed(
+    public ResponseEntity<byte[]> getFeed(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Post> postsPage = postService.getFeed(pageable);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("posts", postsPage.getContent());
-        response.put("hasMore", postsPage.hasNext());
-        response.put("totalPages", postsPage.getTotalPages());
-        response.put("currentPage", page);
-        response.put("totalElements", postsPage.getTotalElements());
-        
-        return ResponseEntity.ok(response);
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+
+        FeedCache.Page feed = feedCache.getOrLoad("page:" + page + ":" + size, (long) page * size, size, () -> {
+            Pageable pageable = PageRequest.of(page, size);
+            Page<Post> postsPage = postService.getFeed(pageable);
+
+            FeedPage response = new FeedPage(feedEnricher.enrich(postsPage.getContent(), null), postsPage.hasNext());
+            response.setTotalPages(postsPage.getTotalPages());
+            response.setCurrentPage(page);
+            response.setTotalElements(postsPage.getTotalElements());
+            return response;
+        });
+        return feedResponse(feed, principal);
     }
 
     @GetMapping("/feed")
-    public ResponseEntity<Map<String, Object>> getFeedAlternate(
+    public ResponseEntity<byte[]> getFeedAlternate(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return getFeed(page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        return getFeed(page, size, principal);
+    }
+
+    /**
+     * Feed paginado por cursor: cada página cuesta lo mismo a cualquier profundidad y no hay COUNT
+     * El cursor es opaco para el cliente: se devuelve en "nextCursor" y se reenvía tal cual
+     */
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<?> getFeedByCursor(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+
+        if (cursor == null || cursor.isEmpty()) {
+            // La primera página es la cabeza del feed, la misma para todos: sale de FeedCache
+            FeedCache.Page feed = feedCache.getOrLoad("cursor:" + pageSize, 0, pageSize, () -> feedPage(null, pageSize, null));
+            return feedResponse(feed, principal);
+        }
+
+        FeedCursor after;
+        try {
+            after = FeedCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(feedPage(after, pageSize, viewerId(principal)));
+    }
+
+    private FeedPage feedPage(FeedCursor after, int pageSize, String viewerId) {
+        List<Post> posts = postService.getFeedPage(after, pageSize);
+        boolean hasMore = posts.size() > pageSize;
+        if (hasMore) {
+            posts = posts.subList(0, pageSize);
+        }
+
+        FeedPage response = new FeedPage(feedEnricher.enrich(posts, viewerId), hasMore);
+        if (viewerId != null) {
+            List<String> likedPostIds = new ArrayList<>();
+            for (FeedPostDTO post : response.getPosts()) {
+                if (post.isLikedByMe()) {
+                    likedPostIds.add(post.getId());
+                }
+            }
+            response.setLikedPostIds(likedPostIds);
+        }
+        if (hasMore) {
+            Post last = posts.get(posts.size() - 1);
+            response.setNextCursor(new FeedCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return response;
+    }
+
+    // Página compartida de FeedCache tal cual, más los likes del usuario actual en likedPostIds (una consulta)
+    private ResponseEntity<byte[]> feedResponse(FeedCache.Page feed, CustomUserPrincipal principal) {
+        List<String> likedPostIds = feedEnricher.likedInOrder(viewerId(principal), feed.getPostIds());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(feedEnricher.appendLikedPostIds(feed.getJson(), likedPostIds));
+    }
+
+    private String viewerId(CustomUserPrincipal principal) {
+        return principal != null ? principal.getUser().getId() : null;
     }
 
     @GetMapping("/user/{userId}")
@@ -182,10 +268,47 @@ public class PostController {
         }
     }
 
+    // Hilo completo como array JSON, escrito a medida que se lee (ver CommentThreadWriter)
     @GetMapping("/{id}/comments")
-    public ResponseEntity<List<Comment>> getComments(@PathVariable String id) {
-        List<Comment> comments = postService.getComments(id);
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<StreamingResponseBody> getComments(@PathVariable String id) {
+        StreamingResponseBody body = out -> commentThreadWriter.write(id, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Hilo de comentarios paginado por cursor, del más antiguo al más nuevo
+     * El cursor es opaco para el cliente: se devuelve en "nextCursor" y se reenvía tal cual
+     */
+    @GetMapping("/{id}/comments/cursor")
+    public ResponseEntity<Map<String, Object>> getCommentsByCursor(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_COMMENTS_PAGE_SIZE));
+
+        FeedCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = FeedCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        List<CommentDTO> comments = postService.getCommentsPage(id, after, pageSize);
+        boolean hasMore = comments.size() > pageSize;
+        if (hasMore) {
+            comments = comments.subList(0, pageSize);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("comments", comments);
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            CommentDTO last = comments.get(comments.size() - 1);
+            response.put("nextCursor", new FeedCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}")
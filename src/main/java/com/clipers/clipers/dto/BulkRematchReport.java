@@ -0,0 +1,48 @@
+package com.clipers.clipers.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Resultado de un rematch masivo: volumen, tiempos y rendimiento en pares puntuados por segundo
+ * asOf es la fecha con la que se puntuó; repetir el rematch con ella sobre los mismos datos da el mismo resultado
+ */
+public class BulkRematchReport {
+    private final int jobs;
+    private final int candidates;
+    private final long pairsScored;
+    private final int matchesWritten;
+    private final Map<String, Long> prunedByStrategy;
+    private final long scoringMillis;
+    private final long totalMillis;
+    private final double pairsPerSecond;
+    private final int parallelism;
+    private final LocalDate asOf;
+
+    public BulkRematchReport(int jobs, int candidates, long pairsScored, int matchesWritten,
+                             Map<String, Long> prunedByStrategy, long scoringMillis, long totalMillis, int parallelism,
+                             LocalDate asOf) {
+        this.jobs = jobs;
+        this.candidates = candidates;
+        this.pairsScored = pairsScored;
+        this.matchesWritten = matchesWritten;
+        this.prunedByStrategy = prunedByStrategy;
+        this.scoringMillis = scoringMillis;
+        this.totalMillis = totalMillis;
+        this.pairsPerSecond = scoringMillis > 0 ? pairsScored * 1000.0 / scoringMillis : pairsScored;
+        this.parallelism = parallelism;
+        this.asOf = asOf;
+    }
+
+    public int getJobs() { return jobs; }
+    public int getCandidates() { return candidates; }
+    public long getPairsScored() { return pairsScored; }
+    public int getMatchesWritten() { return matchesWritten; }
+    // Pares descartados por cota tras cada estrategia, en el orden en que se evalúan
+    public Map<String, Long> getPrunedByStrategy() { return prunedByStrategy; }
+    public long getScoringMillis() { return scoringMillis; }
+    public long getTotalMillis() { return totalMillis; }
+    public double getPairsPerSecond() { return pairsPerSecond; }
+    public int getParallelism() { return parallelism; }
+    public LocalDate getAsOf() { return asOf; }
+}
@@ -0,0 +1,51 @@
+package com.clipers.clipers.dto;
+
+import com.clipers.clipers.entity.CandidateFeature;
+
+import java.util.List;
+
+/**
+ * Bloque de candidatos en arrays primitivos paralelos, listo para puntuar sin reservar memoria por candidato
+ * Los años de experiencia se calculan una vez al construir el bloque, con el mes actual
+ */
+public class CandidateFeatureSnapshot {
+    private final String[] userIds;
+    private final int[][] skillIds;
+    private final boolean[] hasExperience;
+    private final int[] experienceYears;
+    private final int[] placeIds;
+
+    private CandidateFeatureSnapshot(int size) {
+        this.userIds = new String[size];
+        this.skillIds = new int[size][];
+        this.hasExperience = new boolean[size];
+        this.experienceYears = new int[size];
+        this.placeIds = new int[size];
+    }
+
+    public static CandidateFeatureSnapshot of(List<CandidateFeature> features, int currentMonth) {
+        CandidateFeatureSnapshot snapshot = new CandidateFeatureSnapshot(features.size());
+        for (int i = 0; i < features.size(); i++) {
+            CandidateFeature feature = features.get(i);
+            int months = feature.getClosedExperienceMonths();
+            for (int startMonth : feature.getOngoingExperienceStartMonths()) {
+                months += Math.max(currentMonth - startMonth, 0);
+            }
+            snapshot.userIds[i] = feature.getUserId();
+            snapshot.skillIds[i] = feature.getSkillIds();
+            snapshot.hasExperience[i] = feature.getExperienceCount() > 0;
+            snapshot.experienceYears[i] = months / 12;
+            snapshot.placeIds[i] = feature.getPlaceId() != null ? feature.getPlaceId() : 0;
+        }
+        return snapshot;
+    }
+
+    public int size() { return userIds.length; }
+    public String getUserId(int i) { return userIds[i]; }
+    public int[] getSkillIds(int i) { return skillIds[i]; }
+    public boolean hasSkills(int i) { return skillIds[i].length > 0; }
+    public boolean hasExperience(int i) { return hasExperience[i]; }
+    public int getExperienceYears(int i) { return experienceYears[i]; }
+    // Lugar del gazetteer, 0 si el candidato no tiene ubicación reconocida
+    public int getPlaceId(int i) { return placeIds[i]; }
+}
@@ -0,0 +1,57 @@
+package com.clipers.clipers.dto;
+
+import com.clipers.clipers.entity.JobMatch;
+import com.clipers.clipers.entity.User;
+
+import java.util.List;
+
+/**
+ * Entrada del ranking de candidatos de una vacante
+ */
+public class CandidateRankingDTO {
+    private String userId;
+    private String firstName;
+    private String lastName;
+    private String profileImage;
+    private Double score;
+    private String explanation;
+    private List<String> matchedSkills;
+
+    public CandidateRankingDTO() {}
+
+    public CandidateRankingDTO(JobMatch jobMatch) {
+        this(jobMatch.getUser(), jobMatch.getScore(), jobMatch.getExplanation(), jobMatch.getMatchedSkills());
+    }
+
+    public CandidateRankingDTO(User user, Double score, String explanation, List<String> matchedSkills) {
+        this.userId = user.getId();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.profileImage = user.getProfileImage();
+        this.score = score;
+        this.explanation = explanation;
+        this.matchedSkills = matchedSkills != null ? List.copyOf(matchedSkills) : List.of();
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getProfileImage() { return profileImage; }
+    public void setProfileImage(String profileImage) { this.profileImage = profileImage; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public String getExplanation() { return explanation; }
+    public void setExplanation(String explanation) { this.explanation = explanation; }
+
+    public List<String> getMatchedSkills() { return matchedSkills; }
+    public void setMatchedSkills(List<String> matchedSkills) { this.matchedSkills = matchedSkills; }
+}
@@ -0,0 +1,41 @@
+package com.clipers.clipers.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comentario tal como se lista en el hilo de un post. Se obtiene con una proyección de la consulta,
+ * así recorrer un hilo largo no va acumulando entidades en el contexto de persistencia
+ */
+public class CommentDTO {
+    private String id;
+    private String content;
+    private String userId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public CommentDTO() {}
+
+    public CommentDTO(String id, String content, String userId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.content = content;
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,41 @@
+package com.clipers.clipers.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posición en una lista ordenada por (createdAt, id), como el feed o un hilo de comentarios: el último
+ * elemento de la página anterior
+ * Viaja al cliente como cadena opaca (base64 URL-safe) que se devuelve tal cual para pedir la página siguiente
+ */
+public class FeedCursor {
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    public FeedCursor(LocalDateTime createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getId() { return id; }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si la cadena no es un cursor válido
+     */
+    public static FeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new FeedCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
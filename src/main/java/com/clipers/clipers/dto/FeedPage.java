@@ -0,0 +1,51 @@
+package com.clipers.clipers.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Respuesta de los endpoints del feed. El feed por páginas rellena totalPages, currentPage y totalElements;
+ * el feed por cursor rellena nextCursor. Los campos que no aplican no se serializan
+ * likedPostIds lista los posts de la página a los que el usuario actual dio like; en las páginas que salen
+ * de FeedCache es la única marca fiable, porque se cachean sin likes propios (likedByMe a false)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FeedPage {
+    private List<FeedPostDTO> posts;
+    private boolean hasMore;
+    private String nextCursor;
+    private Integer totalPages;
+    private Integer currentPage;
+    private Long totalElements;
+    private List<String> likedPostIds;
+
+    public FeedPage() {}
+
+    public FeedPage(List<FeedPostDTO> posts, boolean hasMore) {
+        this.posts = posts;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<FeedPostDTO> getPosts() { return posts; }
+    public void setPosts(List<FeedPostDTO> posts) { this.posts = posts; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
+
+    public Integer getCurrentPage() { return currentPage; }
+    public void setCurrentPage(Integer currentPage) { this.currentPage = currentPage; }
+
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+
+    public List<String> getLikedPostIds() { return likedPostIds; }
+    public void setLikedPostIds(List<String> likedPostIds) { this.likedPostIds = likedPostIds; }
+}
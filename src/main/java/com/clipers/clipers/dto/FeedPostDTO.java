@@ -0,0 +1,108 @@
+package com.clipers.clipers.dto;
+
+import com.clipers.clipers.entity.Post;
+import com.clipers.clipers.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Post tal como lo muestra el feed: datos propios, resumen del autor, número de comentarios y si el usuario
+ * actual le dio like. Lo construye FeedEnricher sin tocar las colecciones lazy del post
+ */
+public class FeedPostDTO {
+    private String id;
+    private String content;
+    private String imageUrl;
+    private String videoUrl;
+    private Post.PostType type;
+    private Integer likes;
+    private long commentCount;
+    private boolean likedByMe;
+    private Author user;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public FeedPostDTO() {}
+
+    public FeedPostDTO(Post post, long commentCount, boolean likedByMe) {
+        this.id = post.getId();
+        this.content = post.getContent();
+        this.imageUrl = post.getImageUrl();
+        this.videoUrl = post.getVideoUrl();
+        this.type = post.getType();
+        this.likes = post.getLikes();
+        this.commentCount = commentCount;
+        this.likedByMe = likedByMe;
+        this.user = new Author(post.getUser());
+        this.createdAt = post.getCreatedAt();
+        this.updatedAt = post.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getVideoUrl() { return videoUrl; }
+    public void setVideoUrl(String videoUrl) { this.videoUrl = videoUrl; }
+
+    public Post.PostType getType() { return type; }
+    public void setType(Post.PostType type) { this.type = type; }
+
+    public Integer getLikes() { return likes; }
+    public void setLikes(Integer likes) { this.likes = likes; }
+
+    public long getCommentCount() { return commentCount; }
+    public void setCommentCount(long commentCount) { this.commentCount = commentCount; }
+
+    public boolean isLikedByMe() { return likedByMe; }
+    public void setLikedByMe(boolean likedByMe) { this.likedByMe = likedByMe; }
+
+    public Author getUser() { return user; }
+    public void setUser(Author user) { this.user = user; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    // Lo que el feed muestra del autor (sin email ni otros datos de la cuenta)
+    public static class Author {
+        private String id;
+        private String firstName;
+        private String lastName;
+        private User.Role role;
+        private String profileImage;
+
+        public Author() {}
+
+        public Author(User user) {
+            this.id = user.getId();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.role = user.getRole();
+            this.profileImage = user.getProfileImage();
+        }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public String getFirstName() { return firstName; }
+        public void setFirstName(String firstName) { this.firstName = firstName; }
+
+        public String getLastName() { return lastName; }
+        public void setLastName(String lastName) { this.lastName = lastName; }
+
+        public User.Role getRole() { return role; }
+        public void setRole(User.Role role) { this.role = role; }
+
+        public String getProfileImage() { return profileImage; }
+        public void setProfileImage(String profileImage) { this.profileImage = profileImage; }
+    }
+}
@@ -0,0 +1,58 @@
+package com.clipers.clipers.dto;
+
+import com.clipers.clipers.entity.Job;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Vista mínima de una vacante activa para el matching incremental de un candidato,
+ * cargada por bloques sin materializar entidades Job. Las skills se resuelven una vez a ids del
+ * diccionario: skillIds va alineado con skills (UNKNOWN si el término no existe) y distinctSkillIds
+ * está ordenado para intersecar con los ids del candidato
+ */
+public class JobMatchProfile {
+    private final String jobId;
+    private final Job.JobType type;
+    private final String location;
+    private final int placeId;
+    private final List<String> skills;
+    private final int[] skillIds;
+    private final int[] distinctSkillIds;
+    private final int distinctSkillCount;
+
+    public JobMatchProfile(String jobId, Job.JobType type, String location, int placeId,
+                           List<String> skills, int[] skillIds, int[] distinctSkillIds, int distinctSkillCount) {
+        this.jobId = jobId;
+        this.type = type;
+        this.location = location;
+        this.placeId = placeId;
+        this.skills = skills;
+        this.skillIds = skillIds;
+        this.distinctSkillIds = distinctSkillIds;
+        this.distinctSkillCount = distinctSkillCount;
+    }
+
+    public String getJobId() { return jobId; }
+    public Job.JobType getType() { return type; }
+    public String getLocation() { return location; }
+    // Lugar del gazetteer, 0 si la ubicación no se reconoció
+    public int getPlaceId() { return placeId; }
+    public List<String> getSkills() { return skills; }
+    public int[] getSkillIds() { return skillIds; }
+    public int[] getDistinctSkillIds() { return distinctSkillIds; }
+    // Incluye las skills que no están en el diccionario: cuentan en el denominador del score
+    public int getDistinctSkillCount() { return distinctSkillCount; }
+
+    // Skills de la vacante (con su nombre original) presentes en los ids ordenados de un candidato
+    public List<String> getMatchedSkills(int[] candidateSkillIds) {
+        List<String> matched = new ArrayList<>();
+        for (int k = 0; k < skillIds.length; k++) {
+            if (skillIds[k] >= 0 && Arrays.binarySearch(candidateSkillIds, skillIds[k]) >= 0) {
+                matched.add(skills.get(k));
+            }
+        }
+        return matched;
+    }
+}
@@ -29,6 +29,12 @@ public class ATSProfile {
 
     private String cliperId;
 
+    // Ubicación declarada por el candidato y el lugar del gazetteer al que se resolvió (null si no se reconoció)
+    private String location;
+
+    @Column(name = "place_id")
+    private Integer placeId;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -169,6 +175,12 @@ public class ATSProfile {
     public String getCliperId() { return cliperId; }
     public void setCliperId(String cliperId) { this.cliperId = cliperId; }
 
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public Integer getPlaceId() { return placeId; }
+    public void setPlaceId(Integer placeId) { this.placeId = placeId; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,73 @@
+package com.clipers.clipers.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vector de características de un candidato para el matching, desnormalizado a partir de su perfil ATS
+ * Se reescribe en la misma transacción que cambia el perfil, así el scoring no toca Skill ni Experience
+ * La experiencia en curso se guarda como mes de inicio para que los meses totales no queden desfasados
+ */
+@Entity
+@Table(name = "candidate_features")
+public class CandidateFeature {
+
+    @Id
+    private String userId;
+
+    // Ids de SkillTerm ordenados y sin repetir
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private int[] skillIds = new int[0];
+
+    @Column(nullable = false)
+    private Integer experienceCount = 0;
+
+    // Meses de las experiencias ya terminadas
+    @Column(nullable = false)
+    private Integer closedExperienceMonths = 0;
+
+    // Mes de inicio (año * 12 + mes - 1) de cada experiencia en curso
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private int[] ongoingExperienceStartMonths = new int[0];
+
+    // Lugar del gazetteer del perfil ATS (null si no declaró ubicación o no se reconoció)
+    private Integer placeId;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public CandidateFeature() {}
+
+    public CandidateFeature(String userId) {
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public int[] getSkillIds() { return skillIds; }
+    public void setSkillIds(int[] skillIds) { this.skillIds = skillIds; }
+
+    public Integer getExperienceCount() { return experienceCount; }
+    public void setExperienceCount(Integer experienceCount) { this.experienceCount = experienceCount; }
+
+    public Integer getClosedExperienceMonths() { return closedExperienceMonths; }
+    public void setClosedExperienceMonths(Integer closedExperienceMonths) { this.closedExperienceMonths = closedExperienceMonths; }
+
+    public int[] getOngoingExperienceStartMonths() { return ongoingExperienceStartMonths; }
+    public void setOngoingExperienceStartMonths(int[] ongoingExperienceStartMonths) { this.ongoingExperienceStartMonths = ongoingExperienceStartMonths; }
+
+    public Integer getPlaceId() { return placeId; }
+    public void setPlaceId(Integer placeId) { this.placeId = placeId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,5 +1,6 @@
 package com.clipers.clipers.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -8,12 +9,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
- * Entidad Cliper que implementa Chain of Responsibility implícitamente
- * para el procesamiento de video -> audio -> transcripción -> NLP
+ * Entidad Cliper; el procesamiento video -> transcripción -> perfil lo realiza
+ * el microservicio a través de VideoProcessingQueue
  */
 @Entity
 @Table(name = "clipers")
@@ -52,6 +52,23 @@ public class Cliper {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Cola de procesamiento: archivo original, intentos y lease del worker actual
+    @JsonIgnore
+    private String sourceFilePath;
+
+    @JsonIgnore
+    @Column(length = 64)
+    private String contentHash; // SHA-256 del video subido
+
+    @JsonIgnore
+    private Integer processingAttempts = 0;
+
+    @JsonIgnore
+    private LocalDateTime leaseExpiresAt;
+
+    @JsonIgnore
+    private LocalDateTime nextAttemptAt; // reintento programado (null = primer procesamiento)
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -69,129 +86,6 @@ public class Cliper {
         this.user = user;
     }
 
-    // Chain of Responsibility implementado implícitamente
-    public void processVideo() {
-        try {
-            if (canExtractAudio()) {
-                extractAudio();
-                if (canTranscribe()) {
-                    transcribeAudio();
-                    if (canAnalyzeText()) {
-                        analyzeTextAndExtractSkills();
-                        this.status = Status.DONE;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            this.status = Status.FAILED;
-            System.err.println("Error procesando cliper " + this.id + ": " + e.getMessage());
-        }
-    }
-
-    private boolean canExtractAudio() {
-        return this.status == Status.UPLOADED && 
-               this.videoUrl != null && 
-               !this.videoUrl.isEmpty();
-    }
-
-    private void extractAudio() throws InterruptedException {
-        // Simular extracción de audio con FFmpeg
-        System.out.println("Extrayendo audio del cliper: " + this.id);
-        Thread.sleep(1000); // Simular procesamiento
-        this.status = Status.PROCESSING;
-        System.out.println("Audio extraído exitosamente para cliper: " + this.id);
-    }
-
-    private boolean canTranscribe() {
-        return this.status == Status.PROCESSING && this.transcription == null;
-    }
-
-    private void transcribeAudio() throws InterruptedException {
-        // Simular transcripción con Whisper/Vosk
-        System.out.println("Transcribiendo audio del cliper: " + this.id);
-        Thread.sleep(2000); // Simular procesamiento
-        
-        // Generar transcripción simulada
-        this.transcription = generateMockTranscription();
-        System.out.println("Transcripción completada para cliper: " + this.id);
-    }
-
-    private boolean canAnalyzeText() {
-        return this.status == Status.PROCESSING && 
-               this.transcription != null && 
-               !this.transcription.isEmpty() &&
-               this.skills.isEmpty();
-    }
-
-    private void analyzeTextAndExtractSkills() throws InterruptedException {
-        // Simular análisis NLP con Hugging Face Transformers
-        System.out.println("Analizando texto y extrayendo skills del cliper: " + this.id);
-        Thread.sleep(1500); // Simular procesamiento
-        
-        // Extraer skills usando Strategy Pattern implícito
-        this.skills = extractSkillsFromTranscription(this.transcription);
-        
-        System.out.println("Análisis NLP completado para cliper: " + this.id + 
-                         ". Skills extraídas: " + this.skills);
-    }
-
-    private String generateMockTranscription() {
-        // En producción, esto vendría del servicio de transcripción
-        return "Hola, soy " + this.user.getFirstName() + " " + this.user.getLastName() + 
-               ". Tengo experiencia en desarrollo de software, especialmente en Java y Spring Boot. " +
-               "Me considero una persona proactiva, con buenas habilidades de comunicación y trabajo en equipo. " +
-               "Estoy buscando nuevas oportunidades para crecer profesionalmente.";
-    }
-
-    // Strategy Pattern implícito para extracción de skills
-    private List<String> extractSkillsFromTranscription(String transcription) {
-        List<String> detectedSkills = new ArrayList<>();
-        String transcriptionLower = transcription.toLowerCase();
-        
-        // Aplicar diferentes estrategias de detección
-        detectedSkills.addAll(extractTechnicalSkills(transcriptionLower));
-        detectedSkills.addAll(extractSoftSkills(transcriptionLower));
-        
-        // Si no se detectaron skills específicas, agregar algunas por defecto
-        if (detectedSkills.isEmpty()) {
-            detectedSkills.addAll(Arrays.asList("Comunicación", "Trabajo en equipo", "Adaptabilidad"));
-        }
-        
-        return detectedSkills;
-    }
-
-    private List<String> extractTechnicalSkills(String text) {
-        List<String> technicalSkills = new ArrayList<>();
-        
-        if (text.contains("java")) technicalSkills.add("Java");
-        if (text.contains("spring")) technicalSkills.add("Spring Boot");
-        if (text.contains("python")) technicalSkills.add("Python");
-        if (text.contains("javascript")) technicalSkills.add("JavaScript");
-        if (text.contains("react")) technicalSkills.add("React");
-        if (text.contains("angular")) technicalSkills.add("Angular");
-        if (text.contains("node")) technicalSkills.add("Node.js");
-        if (text.contains("base de datos") || text.contains("sql")) technicalSkills.add("SQL");
-        if (text.contains("docker")) technicalSkills.add("Docker");
-        if (text.contains("kubernetes")) technicalSkills.add("Kubernetes");
-        
-        return technicalSkills;
-    }
-
-    private List<String> extractSoftSkills(String text) {
-        List<String> softSkills = new ArrayList<>();
-        
-        if (text.contains("comunicación")) softSkills.add("Comunicación");
-        if (text.contains("trabajo en equipo") || text.contains("colaboración")) 
-            softSkills.add("Trabajo en equipo");
-        if (text.contains("liderazgo")) softSkills.add("Liderazgo");
-        if (text.contains("proactiv")) softSkills.add("Proactividad");
-        if (text.contains("resolución de problemas")) softSkills.add("Resolución de problemas");
-        if (text.contains("creatividad") || text.contains("creativ")) 
-            softSkills.add("Creatividad");
-        
-        return softSkills;
-    }
-
     // State Pattern implícito para manejo de estados
     public boolean canBeEdited() {
         return this.status == Status.UPLOADED || this.status == Status.FAILED;
@@ -236,6 +130,21 @@ public class Cliper {
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
+    public String getSourceFilePath() { return sourceFilePath; }
+    public void setSourceFilePath(String sourceFilePath) { this.sourceFilePath = sourceFilePath; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public Integer getProcessingAttempts() { return processingAttempts; }
+    public void setProcessingAttempts(Integer processingAttempts) { this.processingAttempts = processingAttempts; }
+
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -34,6 +34,10 @@ public class Job {
 
     private String location;
 
+    // Lugar del gazetteer al que se resolvió location (null si no se reconoció, p. ej. "Remoto")
+    @Column(name = "place_id")
+    private Integer placeId;
+
     @Enumerated(EnumType.STRING)
     private JobType type;
 
@@ -87,6 +91,9 @@ public class Job {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    public Integer getPlaceId() { return placeId; }
+    public void setPlaceId(Integer placeId) { this.placeId = placeId; }
+
     public JobType getType() { return type; }
     public void setType(JobType type) { this.type = type; }
 
@@ -0,0 +1,78 @@
+package com.clipers.clipers.entity;
+
+import jakarta.persistence.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lugar canónico del gazetteer (ciudad con coordenadas). Las ubicaciones en texto libre de vacantes y
+ * perfiles se resuelven a un lugar; el matching y los filtros por radio trabajan con su id
+ */
+@Entity
+@Table(name = "places", uniqueConstraints = @UniqueConstraint(name = "ux_places_name_country",
+        columnNames = {"normalized_name", "country"}))
+public class Place {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Nombre sin tildes y en minúsculas, clave de resolución junto con el país
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
+
+    private String admin;
+
+    // Código ISO 3166-1 alfa-2
+    @Column(nullable = false, length = 2)
+    private String country;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    private Integer population;
+
+    // Otros nombres con los que se reconoce el lugar, ya normalizados
+    @ElementCollection
+    @CollectionTable(name = "place_aliases", joinColumns = @JoinColumn(name = "place_id"))
+    @Column(name = "alias")
+    private List<String> aliases = new ArrayList<>();
+
+    // Constructors
+    public Place() {}
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getNormalizedName() { return normalizedName; }
+    public void setNormalizedName(String normalizedName) { this.normalizedName = normalizedName; }
+
+    public String getAdmin() { return admin; }
+    public void setAdmin(String admin) { this.admin = admin; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Integer getPopulation() { return population; }
+    public void setPopulation(Integer population) { this.population = population; }
+
+    public List<String> getAliases() { return aliases; }
+    public void setAliases(List<String> aliases) { this.aliases = aliases; }
+}
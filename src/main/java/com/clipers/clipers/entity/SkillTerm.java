@@ -0,0 +1,36 @@
+package com.clipers.clipers.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Término del diccionario de skills: a cada nombre normalizado (minúsculas) le corresponde un id entero
+ * estable, que es lo que guardan los vectores de características de los candidatos
+ * Los sinónimos ("spring boot") apuntan a su término canónico ("spring"); el canónico no apunta a nadie
+ */
+@Entity
+@Table(name = "skill_terms")
+public class SkillTerm {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    @Column(name = "canonical_id")
+    private Integer canonicalId;
+
+    // Constructors
+    public SkillTerm() {}
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Integer getCanonicalId() { return canonicalId; }
+    public void setCanonicalId(Integer canonicalId) { this.canonicalId = canonicalId; }
+}
@@ -0,0 +1,56 @@
+package com.clipers.clipers.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Video almacenado por contenido (SHA-256) en uploads/videos
+ * Varios Clipers pueden apuntar al mismo blob; referenceCount indica cuántos lo usan
+ * y los blobs sin referencias se eliminan en segundo plano
+ */
+@Entity
+@Table(name = "video_blobs")
+public class VideoBlob {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    private Long size;
+
+    @Column(nullable = false)
+    private Integer referenceCount = 0;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    private LocalDateTime releasedAt;
+
+    // Constructors
+    public VideoBlob() {}
+
+    // Getters and Setters
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+
+    public Integer getReferenceCount() { return referenceCount; }
+    public void setReferenceCount(Integer referenceCount) { this.referenceCount = referenceCount; }
+
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getReleasedAt() { return releasedAt; }
+    public void setReleasedAt(LocalDateTime releasedAt) { this.releasedAt = releasedAt; }
+}
@@ -1,11 +1,13 @@
 package com.clipers.clipers.repository;
 
 import com.clipers.clipers.entity.ATSProfile;
+import com.clipers.clipers.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,15 +17,32 @@ public interface ATSProfileRepository extends JpaRepository<ATSProfile, String>
     Optional<ATSProfile> findByUserId(String userId);
     
     Optional<ATSProfile> findByCliperId(String cliperId);
+
+    boolean existsByUserIdAndUserRole(String userId, User.Role role);
     
-    @Query("SELECT a FROM ATSProfile a WHERE " +
-           "LOWER(a.summary) LIKE LOWER(CONCAT('%', :query, '%'))")
+    // Búsqueda a texto completo (query: expresión de FullTextQuery) en el resumen, por relevancia
+    @Query(value = "SELECT a.* FROM ats_profiles a, to_tsquery('clipers_es', :query) q WHERE a.search_vector @@ q " +
+                   "ORDER BY ts_rank(a.search_vector, q) DESC",
+           nativeQuery = true)
     List<ATSProfile> searchBySummary(@Param("query") String query);
     
-    @Query("SELECT a FROM ATSProfile a JOIN a.skills s WHERE " +
-           "LOWER(s.name) LIKE LOWER(CONCAT('%', :skill, '%'))")
-    List<ATSProfile> findBySkillsContaining(@Param("skill") String skill);
+    // Perfiles (sin repetir) con alguno de los términos del diccionario, por el índice sobre lower(name)
+    @Query("SELECT a FROM ATSProfile a WHERE a.id IN (" +
+           "SELECT s.atsProfile.id FROM Skill s JOIN SkillTerm t ON t.name = LOWER(s.name) WHERE t.id IN :termIds)")
+    List<ATSProfile> findBySkillTerms(@Param("termIds") Collection<Integer> termIds);
     
     @Query("SELECT COUNT(a) FROM ATSProfile a WHERE a.user.role = 'CANDIDATE'")
     Long countCandidateProfiles();
+
+    // Skills de un bloque de candidatos en una sola consulta: filas [userId, nombre]
+    @Query("SELECT a.user.id, s.name FROM ATSProfile a JOIN a.skills s WHERE a.user.id IN :userIds")
+    List<Object[]> findSkillNamesByUserIds(@Param("userIds") Collection<String> userIds);
+
+    // Experiencia de un bloque de candidatos en una sola consulta: filas [userId, inicio, fin]
+    @Query("SELECT a.user.id, e.startDate, e.endDate FROM ATSProfile a JOIN a.experience e WHERE a.user.id IN :userIds")
+    List<Object[]> findExperiencePeriodsByUserIds(@Param("userIds") Collection<String> userIds);
+
+    // Lugar del gazetteer al que se resolvió la ubicación del candidato (vacío también si no se reconoció)
+    @Query("SELECT a.placeId FROM ATSProfile a WHERE a.user.id = :userId AND a.placeId IS NOT NULL")
+    Optional<Integer> findPlaceIdByUserId(@Param("userId") String userId);
 }
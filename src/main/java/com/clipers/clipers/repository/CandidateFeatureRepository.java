@@ -0,0 +1,28 @@
+package com.clipers.clipers.repository;
+
+import com.clipers.clipers.entity.CandidateFeature;
+import com.clipers.clipers.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CandidateFeatureRepository extends JpaRepository<CandidateFeature, String> {
+
+    // Escaneo por keyset (userId > cursor) de los candidatos que siguen teniendo perfil ATS
+    @Query("SELECT f FROM CandidateFeature f WHERE f.userId > :afterUserId AND " +
+           "EXISTS (SELECT a.id FROM ATSProfile a WHERE a.user.id = f.userId AND a.user.role = :role) " +
+           "ORDER BY f.userId")
+    List<CandidateFeature> findCandidatesAfter(@Param("role") User.Role role,
+                                               @Param("afterUserId") String afterUserId,
+                                               Pageable pageable);
+
+    // Candidatos con perfil ATS que aún no tienen vector de características
+    @Query("SELECT a.user.id FROM ATSProfile a WHERE a.user.role = :role AND " +
+           "NOT EXISTS (SELECT f.userId FROM CandidateFeature f WHERE f.userId = a.user.id)")
+    List<String> findUserIdsWithoutFeatures(@Param("role") User.Role role, Pageable pageable);
+}
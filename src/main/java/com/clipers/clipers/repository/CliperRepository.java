@@ -4,10 +4,13 @@ import com.clipers.clipers.entity.Cliper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,15 +24,72 @@ public interface CliperRepository extends JpaRepository<Cliper, String> {
     
     Page<Cliper> findByStatusOrderByCreatedAtDesc(Cliper.Status status, Pageable pageable);
     
-    @Query("SELECT c FROM Cliper c WHERE " +
-           "LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%'))")
+    // Búsqueda a texto completo (query: expresión de FullTextQuery) por título y descripción, por relevancia
+    @Query(value = "SELECT c.* FROM clipers c, to_tsquery('clipers_es', :query) q WHERE c.search_vector @@ q " +
+                   "ORDER BY ts_rank(c.search_vector, q) DESC, c.created_at DESC, c.id",
+           countQuery = "SELECT COUNT(*) FROM clipers c WHERE c.search_vector @@ to_tsquery('clipers_es', :query)",
+           nativeQuery = true)
     Page<Cliper> searchClipers(@Param("query") String query, Pageable pageable);
     
-    @Query("SELECT c FROM Cliper c JOIN c.skills s WHERE " +
-           "LOWER(s) LIKE LOWER(CONCAT('%', :skill, '%'))")
-    List<Cliper> findBySkillsContaining(@Param("skill") String skill);
+    // Clipers (sin repetir) con alguno de los términos del diccionario, por el índice sobre lower(skill)
+    @Query("SELECT c FROM Cliper c WHERE c.id IN (" +
+           "SELECT cs.id FROM Cliper cs JOIN cs.skills s JOIN SkillTerm t ON t.name = LOWER(s) WHERE t.id IN :termIds)")
+    List<Cliper> findBySkillTerms(@Param("termIds") Collection<Integer> termIds);
     
     @Query("SELECT c FROM Cliper c WHERE c.status = 'DONE' ORDER BY c.createdAt DESC")
     Page<Cliper> findProcessedClipersOrderByCreatedAtDesc(Pageable pageable);
+
+    // Clipers procesados por keyset sobre (createdAt DESC, id DESC), servido por el índice parcial
+    // ix_clipers_done_created_id y sin COUNT
+    @Query("SELECT c FROM Cliper c JOIN FETCH c.user WHERE c.status = 'DONE' ORDER BY c.createdAt DESC, c.id DESC")
+    List<Cliper> findProcessedFeed(Pageable pageable);
+
+    @Query("SELECT c FROM Cliper c JOIN FETCH c.user WHERE c.status = 'DONE' AND " +
+           "(c.createdAt < :afterCreatedAt OR (c.createdAt = :afterCreatedAt AND c.id < :afterId)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Cliper> findProcessedFeedAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                        @Param("afterId") String afterId,
+                                        Pageable pageable);
+
+    // Cola de procesamiento: UPLOADED que nunca se han intentado
+    @Query("SELECT c.id FROM Cliper c WHERE c.status = :uploaded AND c.nextAttemptAt IS NULL " +
+           "ORDER BY c.createdAt ASC")
+    List<String> findClaimableIds(@Param("uploaded") Cliper.Status uploaded, Pageable pageable);
+
+    // Reintentos: UPLOADED con backoff cumplido o PROCESSING con lease vencido (worker caído)
+    @Query("SELECT c.id FROM Cliper c WHERE (c.status = :uploaded AND c.nextAttemptAt <= :now) OR " +
+           "(c.status = :processing AND (c.leaseExpiresAt IS NULL OR c.leaseExpiresAt < :now)) " +
+           "ORDER BY c.createdAt ASC")
+    List<String> findRetryableIds(@Param("uploaded") Cliper.Status uploaded,
+                                  @Param("processing") Cliper.Status processing,
+                                  @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Cliper c WHERE c.status = :uploaded AND c.nextAttemptAt IS NOT NULL")
+    long countScheduledRetries(@Param("uploaded") Cliper.Status uploaded);
+
+    @Query("SELECT MIN(c.nextAttemptAt) FROM Cliper c WHERE c.status = :uploaded AND c.nextAttemptAt IS NOT NULL")
+    LocalDateTime findOldestScheduledRetry(@Param("uploaded") Cliper.Status uploaded);
+
+    @Modifying
+    @Query("UPDATE Cliper c SET c.status = :processing, c.leaseExpiresAt = :leaseUntil, " +
+           "c.processingAttempts = COALESCE(c.processingAttempts, 0) + 1 " +
+           "WHERE c.id = :id AND COALESCE(c.processingAttempts, 0) < :maxAttempts AND " +
+           "((c.status = :uploaded AND (c.nextAttemptAt IS NULL OR c.nextAttemptAt <= :now)) OR " +
+           "(c.status = :processing AND (c.leaseExpiresAt IS NULL OR c.leaseExpiresAt < :now)))")
+    int claimForProcessing(@Param("id") String id,
+                           @Param("uploaded") Cliper.Status uploaded,
+                           @Param("processing") Cliper.Status processing,
+                           @Param("now") LocalDateTime now,
+                           @Param("leaseUntil") LocalDateTime leaseUntil,
+                           @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE Cliper c SET c.status = :failed, c.leaseExpiresAt = NULL " +
+           "WHERE c.status = :processing AND (c.leaseExpiresAt IS NULL OR c.leaseExpiresAt < :now) " +
+           "AND COALESCE(c.processingAttempts, 0) >= :maxAttempts")
+    int failExpiredProcessing(@Param("processing") Cliper.Status processing,
+                              @Param("failed") Cliper.Status failed,
+                              @Param("now") LocalDateTime now,
+                              @Param("maxAttempts") int maxAttempts);
 }
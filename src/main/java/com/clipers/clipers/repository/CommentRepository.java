@@ -1,5 +1,6 @@
 package com.clipers.clipers.repository;
 
+import com.clipers.clipers.dto.CommentDTO;
 import com.clipers.clipers.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,11 +20,29 @@ public interface CommentRepository extends JpaRepository<Comment, String> {
     
     Page<Comment> findByPostIdOrderByCreatedAtAsc(String postId, Pageable pageable);
     
+    // Hilo de un post por keyset sobre (createdAt, id), del más antiguo al más nuevo (índice ix_comments_post_created)
+    @Query("SELECT new com.clipers.clipers.dto.CommentDTO(c.id, c.content, c.user.id, c.createdAt, c.updatedAt) " +
+           "FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentDTO> findThread(@Param("postId") String postId, Pageable pageable);
+
+    @Query("SELECT new com.clipers.clipers.dto.CommentDTO(c.id, c.content, c.user.id, c.createdAt, c.updatedAt) " +
+           "FROM Comment c WHERE c.post.id = :postId AND " +
+           "(c.createdAt > :afterCreatedAt OR (c.createdAt = :afterCreatedAt AND c.id > :afterId)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentDTO> findThreadAfter(@Param("postId") String postId,
+                                     @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                     @Param("afterId") String afterId,
+                                     Pageable pageable);
+    
     List<Comment> findByUserId(String userId);
     
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId")
     Long countCommentsByPostId(@Param("postId") String postId);
     
+    // Filas (postId, número de comentarios) para una página del feed; los posts sin comentarios no aparecen
+    @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<String> postIds);
+    
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.user.id = :userId")
     Long countCommentsByUserId(@Param("userId") String userId);
 }
@@ -18,10 +18,10 @@ public interface CompanyRepository extends JpaRepository<Company, String> {
     
     List<Company> findByLocation(String location);
     
-    @Query("SELECT c FROM Company c WHERE " +
-           "LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.industry) LIKE LOWER(CONCAT('%', :query, '%'))")
+    // Búsqueda a texto completo (query: expresión de FullTextQuery) por nombre, sector y descripción
+    @Query(value = "SELECT c.* FROM companies c, to_tsquery('clipers_es', :query) q WHERE c.search_vector @@ q " +
+                   "ORDER BY ts_rank(c.search_vector, q) DESC, c.name",
+           nativeQuery = true)
     List<Company> searchCompanies(@Param("query") String query);
     
     @Query("SELECT DISTINCT c.industry FROM Company c WHERE c.industry IS NOT NULL")
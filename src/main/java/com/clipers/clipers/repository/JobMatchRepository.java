@@ -19,7 +19,7 @@ public interface JobMatchRepository extends JpaRepository<JobMatch, String> {
     List<JobMatch> findByJobId(String jobId);
     
     Optional<JobMatch> findByUserIdAndJobId(String userId, String jobId);
-    
+
     Page<JobMatch> findByUserIdOrderByScoreDesc(String userId, Pageable pageable);
     
     Page<JobMatch> findByJobIdOrderByScoreDesc(String jobId, Pageable pageable);
@@ -32,4 +32,17 @@ public interface JobMatchRepository extends JpaRepository<JobMatch, String> {
     
     @Query("SELECT AVG(jm.score) FROM JobMatch jm WHERE jm.user.id = :userId")
     Double getAverageScoreForUser(@Param("userId") String userId);
+
+    // Ranking por keyset sobre (score DESC, user.id ASC), servido por el índice ix_job_matches_job_score
+    @Query("SELECT jm FROM JobMatch jm JOIN FETCH jm.user WHERE jm.job.id = :jobId " +
+           "ORDER BY jm.score DESC, jm.user.id ASC")
+    List<JobMatch> findRankingForJob(@Param("jobId") String jobId, Pageable pageable);
+
+    @Query("SELECT jm FROM JobMatch jm JOIN FETCH jm.user WHERE jm.job.id = :jobId AND " +
+           "(jm.score < :afterScore OR (jm.score = :afterScore AND jm.user.id > :afterUserId)) " +
+           "ORDER BY jm.score DESC, jm.user.id ASC")
+    List<JobMatch> findRankingForJobAfter(@Param("jobId") String jobId,
+                                          @Param("afterScore") Double afterScore,
+                                          @Param("afterUserId") String afterUserId,
+                                          Pageable pageable);
 }
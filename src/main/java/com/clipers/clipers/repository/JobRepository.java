@@ -4,10 +4,12 @@ import com.clipers.clipers.entity.Job;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -25,15 +27,27 @@ public interface JobRepository extends JpaRepository<Job, String> {
     
     List<Job> findByLocation(String location);
     
-    @Query("SELECT j FROM Job j WHERE j.isActive = true AND " +
-           "(LOWER(j.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(j.description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(j.company.name) LIKE LOWER(CONCAT('%', :query, '%')))")
+    // Búsqueda a texto completo (query: expresión de FullTextQuery) por título, descripción o nombre de la empresa
+    // Los candidatos salen de los dos índices GIN por separado (UNION) y se ordenan por relevancia
+    @Query(value = "WITH q AS (SELECT to_tsquery('clipers_es', :query) AS query), " +
+                   "hits AS (SELECT j.id FROM jobs j, q WHERE j.search_vector @@ q.query " +
+                   "UNION SELECT j.id FROM jobs j JOIN companies c ON c.id = j.company_id, q " +
+                   "WHERE to_tsvector('clipers_es'::regconfig, coalesce(c.name, '')) @@ q.query) " +
+                   "SELECT j.* FROM jobs j JOIN hits h ON h.id = j.id, q WHERE j.is_active = true " +
+                   "ORDER BY ts_rank(j.search_vector, q.query) DESC, j.created_at DESC, j.id",
+           countQuery = "WITH q AS (SELECT to_tsquery('clipers_es', :query) AS query), " +
+                   "hits AS (SELECT j.id FROM jobs j, q WHERE j.search_vector @@ q.query " +
+                   "UNION SELECT j.id FROM jobs j JOIN companies c ON c.id = j.company_id, q " +
+                   "WHERE to_tsvector('clipers_es'::regconfig, coalesce(c.name, '')) @@ q.query) " +
+                   "SELECT COUNT(*) FROM jobs j JOIN hits h ON h.id = j.id WHERE j.is_active = true",
+           nativeQuery = true)
     Page<Job> searchActiveJobs(@Param("query") String query, Pageable pageable);
     
-    @Query("SELECT j FROM Job j JOIN j.skills s WHERE " +
-           "j.isActive = true AND LOWER(s) LIKE LOWER(CONCAT('%', :skill, '%'))")
-    List<Job> findActiveJobsBySkill(@Param("skill") String skill);
+    // Vacantes activas (sin repetir) con alguno de los términos del diccionario: de los ids al nombre del término
+    // y de ahí a job_skills por el índice sobre lower(skill)
+    @Query("SELECT j FROM Job j WHERE j.isActive = true AND j.id IN (" +
+           "SELECT js.id FROM Job js JOIN js.skills s JOIN SkillTerm t ON t.name = LOWER(s) WHERE t.id IN :termIds)")
+    List<Job> findActiveJobsBySkillTerms(@Param("termIds") Collection<Integer> termIds);
     
     @Query("SELECT j FROM Job j WHERE j.isActive = true AND " +
            "j.type = :type AND " +
@@ -48,6 +62,39 @@ public interface JobRepository extends JpaRepository<Job, String> {
         Pageable pageable
     );
     
+    // Mismos filtros, pero la ubicación ya resuelta a los lugares dentro del radio pedido
+    @Query("SELECT j FROM Job j WHERE j.isActive = true AND " +
+           "j.type = :type AND " +
+           "j.placeId IN :placeIds AND " +
+           "(:minSalary IS NULL OR j.salaryMin >= :minSalary) AND " +
+           "(:maxSalary IS NULL OR j.salaryMax <= :maxSalary)")
+    Page<Job> findJobsWithFiltersInPlaces(
+        @Param("type") Job.JobType type,
+        @Param("placeIds") Collection<Integer> placeIds,
+        @Param("minSalary") Integer minSalary,
+        @Param("maxSalary") Integer maxSalary,
+        Pageable pageable
+    );
+
     @Query("SELECT DISTINCT j.location FROM Job j WHERE j.isActive = true AND j.location IS NOT NULL")
     List<String> findAllActiveJobLocations();
+
+    // Ubicaciones que aún no se han resuelto a un lugar del gazetteer
+    @Query("SELECT DISTINCT j.location FROM Job j WHERE j.location IS NOT NULL AND j.placeId IS NULL")
+    List<String> findLocationsWithoutPlace();
+
+    @Modifying
+    @Query("UPDATE Job j SET j.placeId = :placeId WHERE j.location = :location AND j.placeId IS NULL")
+    int updatePlaceIdByLocation(@Param("location") String location, @Param("placeId") Integer placeId);
+
+    // Escaneo de vacantes activas por keyset (id > cursor) para el matching incremental: filas [id, tipo, ubicación, lugar]
+    @Query("SELECT j.id, j.type, j.location, j.placeId FROM Job j WHERE j.isActive = true AND j.id > :afterJobId ORDER BY j.id")
+    List<Object[]> findActiveMatchingDataAfter(@Param("afterJobId") String afterJobId, Pageable pageable);
+
+    @Query("SELECT j.id, j.type, j.location, j.placeId FROM Job j WHERE j.isActive = true AND j.id = :jobId")
+    List<Object[]> findActiveMatchingDataById(@Param("jobId") String jobId);
+
+    // Skills de un bloque de vacantes en una sola consulta: filas [jobId, skill]
+    @Query("SELECT j.id, s FROM Job j JOIN j.skills s WHERE j.id IN :jobIds")
+    List<Object[]> findSkillsByJobIds(@Param("jobIds") Collection<String> jobIds);
 }
@@ -0,0 +1,16 @@
+package com.clipers.clipers.repository;
+
+import com.clipers.clipers.entity.Place;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PlaceRepository extends JpaRepository<Place, Integer> {
+
+    // Alias de todos los lugares en una sola consulta: filas [placeId, alias]
+    @Query("SELECT p.id, a FROM Place p JOIN p.aliases a")
+    List<Object[]> findAllAliases();
+}
@@ -2,10 +2,12 @@ package com.clipers.clipers.repository;
 
 import com.clipers.clipers.entity.PostLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,8 +22,23 @@ public interface PostLikeRepository extends JpaRepository<PostLike, String> {
     
     boolean existsByUserIdAndPostId(String userId, String postId);
     
+    // De los posts indicados, los que tienen like del usuario (índice único user_id, post_id)
+    @Query("SELECT pl.post.id FROM PostLike pl WHERE pl.user.id = :userId AND pl.post.id IN :postIds")
+    List<String> findLikedPostIds(@Param("userId") String userId, @Param("postIds") Collection<String> postIds);
+    
     @Query("SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = :postId")
     Long countLikesByPostId(@Param("postId") String postId);
     
     void deleteByUserIdAndPostId(String userId, String postId);
+
+    // Devuelve 1 si el like se creó y 0 si ya existía: la restricción única (user_id, post_id) decide
+    @Modifying
+    @Query(value = "INSERT INTO post_likes (id, user_id, post_id, created_at) VALUES (:id, :userId, :postId, now()) " +
+                   "ON CONFLICT (user_id, post_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("userId") String userId, @Param("postId") String postId);
+
+    @Modifying
+    @Query("DELETE FROM PostLike pl WHERE pl.user.id = :userId AND pl.post.id = :postId")
+    int deleteLike(@Param("userId") String userId, @Param("postId") String postId);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -17,12 +18,28 @@ public interface PostRepository extends JpaRepository<Post, String> {
     
     Page<Post> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
     
-    Page<Post> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    @Query(value = "SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<Post> findFeedPage(Pageable pageable);
+
+    // Feed por keyset sobre (createdAt DESC, id DESC), servido por el índice ix_posts_created_id y sin COUNT
+    @Query("SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeed(Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE " +
+           "(p.createdAt < :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.id < :afterId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                             @Param("afterId") String afterId,
+                             Pageable pageable);
     
     List<Post> findByType(Post.PostType type);
     
-    @Query("SELECT p FROM Post p WHERE " +
-           "LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%'))")
+    // Búsqueda a texto completo (query: expresión de FullTextQuery), por relevancia
+    @Query(value = "SELECT p.* FROM posts p, to_tsquery('clipers_es', :query) q WHERE p.search_vector @@ q " +
+                   "ORDER BY ts_rank(p.search_vector, q) DESC, p.created_at DESC, p.id",
+           countQuery = "SELECT COUNT(*) FROM posts p WHERE p.search_vector @@ to_tsquery('clipers_es', :query)",
+           nativeQuery = true)
     Page<Post> searchPosts(@Param("query") String query, Pageable pageable);
     
     @Query("SELECT p FROM Post p ORDER BY p.likes DESC, p.createdAt DESC")
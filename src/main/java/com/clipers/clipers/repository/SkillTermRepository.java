@@ -0,0 +1,56 @@
+package com.clipers.clipers.repository;
+
+import com.clipers.clipers.entity.SkillTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SkillTermRepository extends JpaRepository<SkillTerm, Integer> {
+
+    // Cola común de las búsquedas: de los grupos encontrados (CTE matched) a todos sus términos
+    String MATCHED_GROUPS = "SELECT t.id FROM skill_terms t WHERE t.id IN (SELECT root FROM matched) " +
+                            "OR t.canonical_id IN (SELECT root FROM matched)";
+
+    List<SkillTerm> findByNameIn(Collection<String> names);
+
+    // Alta idempotente: si otro proceso ya creó el término no falla
+    @Modifying
+    @Query(value = "INSERT INTO skill_terms (name) VALUES (:name) ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    // Da de alta de una vez los nombres de skill de vacantes, clipers y perfiles que aún no son términos
+    @Modifying
+    @Query(value = "INSERT INTO skill_terms (name) " +
+                   "SELECT lower(skill) FROM job_skills WHERE skill IS NOT NULL " +
+                   "UNION SELECT lower(skill) FROM cliper_skills WHERE skill IS NOT NULL " +
+                   "UNION SELECT lower(name) FROM skills WHERE name IS NOT NULL " +
+                   "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertMissingFromPostings();
+
+    @Modifying
+    @Query("UPDATE SkillTerm t SET t.canonicalId = :canonicalId WHERE t.name IN :names AND t.id <> :canonicalId " +
+           "AND (t.canonicalId IS NULL OR t.canonicalId <> :canonicalId)")
+    int updateCanonicalId(@Param("names") Collection<String> names, @Param("canonicalId") Integer canonicalId);
+
+    // Ids de los términos que contienen el texto o se le parecen (trigramas de pg_trgm, índice GIN sobre name),
+    // ampliados con todo su grupo de sinónimos. pattern es el texto con los comodines de LIKE ya escapados
+    @Query(value = "WITH matched AS (SELECT COALESCE(t.canonical_id, t.id) AS root FROM skill_terms t " +
+                   "WHERE t.name LIKE CONCAT('%', :pattern, '%') ESCAPE '\\' OR t.name % :query) " +
+                   MATCHED_GROUPS, nativeQuery = true)
+    List<Integer> findIdsMatching(@Param("pattern") String pattern, @Param("query") String query);
+
+    // Igual que findIdsMatching pero solo por subcadena, para cuando pg_trgm no está instalado
+    @Query(value = "WITH matched AS (SELECT COALESCE(t.canonical_id, t.id) AS root FROM skill_terms t " +
+                   "WHERE t.name LIKE CONCAT('%', :pattern, '%') ESCAPE '\\') " +
+                   MATCHED_GROUPS, nativeQuery = true)
+    List<Integer> findIdsContaining(@Param("pattern") String pattern);
+
+    @Query(value = "SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'", nativeQuery = true)
+    long countTrigramExtension();
+}
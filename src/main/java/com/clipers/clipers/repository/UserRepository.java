@@ -21,9 +21,9 @@ public interface UserRepository extends JpaRepository<User, String> {
     @Query("SELECT u FROM User u WHERE u.role = 'CANDIDATE' AND u.atsProfile IS NOT NULL")
     List<User> findCandidatesWithATSProfile();
     
-    @Query("SELECT u FROM User u WHERE " +
-           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%'))")
+    // Búsqueda a texto completo (query: expresión de FullTextQuery) por nombre, apellido y email, sin stemming
+    @Query(value = "SELECT u.* FROM users u, to_tsquery('clipers_simple', :query) q WHERE u.search_vector @@ q " +
+                   "ORDER BY ts_rank(u.search_vector, q) DESC, u.first_name, u.last_name",
+           nativeQuery = true)
     List<User> searchUsers(@Param("query") String query);
 }
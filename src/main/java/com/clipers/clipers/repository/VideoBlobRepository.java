@@ -0,0 +1,53 @@
+package com.clipers.clipers.repository;
+
+import com.clipers.clipers.entity.VideoBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VideoBlobRepository extends JpaRepository<VideoBlob, String> {
+
+    // Crea el blob o suma una referencia si el contenido ya existía
+    @Modifying
+    @Query(value = "INSERT INTO video_blobs (sha256, file_name, size, reference_count, created_at) " +
+                   "VALUES (:sha256, :fileName, :size, 1, now()) " +
+                   "ON CONFLICT (sha256) DO UPDATE SET reference_count = video_blobs.reference_count + 1, released_at = NULL",
+           nativeQuery = true)
+    int acquire(@Param("sha256") String sha256, @Param("fileName") String fileName, @Param("size") long size);
+
+    @Modifying
+    @Query("UPDATE VideoBlob b SET b.referenceCount = b.referenceCount - 1, b.releasedAt = :now " +
+           "WHERE b.sha256 = :sha256 AND b.referenceCount > 0")
+    int release(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE VideoBlob b SET b.referenceCount = 0, b.releasedAt = :now WHERE b.referenceCount > 0")
+    int releaseAll(@Param("now") LocalDateTime now);
+
+    @Query("SELECT b.fileName FROM VideoBlob b WHERE b.sha256 = :sha256")
+    String findFileName(@Param("sha256") String sha256);
+
+    // Corrige contadores desviados (p. ej. Clipers borrados en cascada junto con su usuario)
+    @Modifying
+    @Query(value = "UPDATE video_blobs b SET reference_count = x.cnt, " +
+                   "released_at = CASE WHEN x.cnt = 0 THEN COALESCE(b.released_at, now()) ELSE NULL END " +
+                   "FROM (SELECT vb.sha256, (SELECT COUNT(*) FROM clipers c WHERE c.content_hash = vb.sha256) AS cnt " +
+                   "FROM video_blobs vb) x " +
+                   "WHERE x.sha256 = b.sha256 AND x.cnt <> b.reference_count",
+           nativeQuery = true)
+    int reconcileReferenceCounts();
+
+    @Query("SELECT b FROM VideoBlob b WHERE b.referenceCount <= 0 AND b.releasedAt < :before")
+    List<VideoBlob> findOrphans(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM VideoBlob b WHERE b.sha256 = :sha256 AND b.referenceCount <= 0")
+    int deleteIfOrphan(@Param("sha256") String sha256);
+}
@@ -5,6 +5,7 @@ import com.clipers.clipers.entity.User;
 import com.clipers.clipers.repository.ATSProfileRepository;
 import com.clipers.clipers.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,11 +22,16 @@ public class ATSProfileService {
 
     private final ATSProfileRepository atsProfileRepository;
     private final UserRepository userRepository;
+    private final PlaceIndex placeIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ATSProfileService(ATSProfileRepository atsProfileRepository, UserRepository userRepository) {
+    public ATSProfileService(ATSProfileRepository atsProfileRepository, UserRepository userRepository,
+                             PlaceIndex placeIndex, ApplicationEventPublisher eventPublisher) {
         this.atsProfileRepository = atsProfileRepository;
         this.userRepository = userRepository;
+        this.placeIndex = placeIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public Optional<ATSProfile> findByUserId(String userId) {
@@ -70,6 +76,14 @@ public class ATSProfileService {
             profile.setSummary((String) updates.get("summary"));
         }
 
+        // Update location if provided
+        if (updates.containsKey("location")) {
+            String location = (String) updates.get("location");
+            profile.setLocation(location);
+            profile.setPlaceId(placeIndex.resolve(location));
+            eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
+        }
+
         // Update education if provided
         if (updates.containsKey("education")) {
             // Clear existing education and add new ones
@@ -100,6 +114,7 @@ public class ATSProfileService {
                     profile.addExperience(company, position, description);
                 }
             }
+            eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
         }
 
         // Update skills if provided
@@ -118,6 +133,7 @@ public class ATSProfileService {
                     profile.addSkill(name, skillLevel, skillCategory);
                 }
             }
+            eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
         }
 
         // Update languages if provided
@@ -144,6 +160,7 @@ public class ATSProfileService {
                 .orElseThrow(() -> new RuntimeException("Perfil ATS no encontrado"));
 
         atsProfileRepository.delete(profile);
+        eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
     }
 
     // Education management methods
@@ -189,6 +206,7 @@ public class ATSProfileService {
 
         profile.addExperience(company, position, description);
         atsProfileRepository.save(profile);
+        eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
         // Return the last added experience
         return profile.getExperience().get(profile.getExperience().size() - 1);
     }
@@ -207,6 +225,7 @@ public class ATSProfileService {
         experience.setDescription(description);
 
         atsProfileRepository.save(profile);
+        eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
         return experience;
     }
 
@@ -216,6 +235,7 @@ public class ATSProfileService {
 
         profile.getExperience().removeIf(e -> e.getId().equals(experienceId));
         atsProfileRepository.save(profile);
+        eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
     }
 
     // Skills management methods
@@ -225,6 +245,7 @@ public class ATSProfileService {
 
         profile.addSkill(name, level, category);
         atsProfileRepository.save(profile);
+        eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
         // Return the last added skill
         return profile.getSkills().get(profile.getSkills().size() - 1);
     }
@@ -243,6 +264,7 @@ public class ATSProfileService {
         skill.setCategory(category);
 
         atsProfileRepository.save(profile);
+        eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
         return skill;
     }
 
@@ -252,5 +274,18 @@ public class ATSProfileService {
 
         profile.getSkills().removeIf(s -> s.getId().equals(skillId));
         atsProfileRepository.save(profile);
+        eventPublisher.publishEvent(new CandidateProfileChangedEvent(userId));
+    }
+
+    // Evento publicado al cambiar las skills, la experiencia o la ubicación de un candidato (userId null: cambio masivo)
+    // Lo consumen CandidateFeatureService y JobMatchingExecutor (matching incremental del candidato)
+    public static class CandidateProfileChangedEvent {
+        private final String userId;
+
+        public CandidateProfileChangedEvent(String userId) {
+            this.userId = userId;
+        }
+
+        public String getUserId() { return userId; }
     }
 }
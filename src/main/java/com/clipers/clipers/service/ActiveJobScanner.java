@@ -0,0 +1,102 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.JobMatchProfile;
+import com.clipers.clipers.entity.Job;
+import com.clipers.clipers.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Recorre las vacantes activas por bloques (keyset sobre job.id), con dos consultas por bloque
+ * Es el lado "vacantes" del matching incremental: cuando cambia un candidato se puntúa contra cada bloque
+ * El matching por vacante y el rematch masivo usan la misma vista, así un par se puntúa igual en los tres caminos
+ */
+@Component
+public class ActiveJobScanner {
+
+    private final JobRepository jobRepository;
+    private final SkillDictionary skillDictionary;
+
+    @Value("${matching.scan.chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    public ActiveJobScanner(JobRepository jobRepository, SkillDictionary skillDictionary) {
+        this.jobRepository = jobRepository;
+        this.skillDictionary = skillDictionary;
+    }
+
+    public void scan(Consumer<List<JobMatchProfile>> chunkConsumer) {
+        String cursor = "";
+        while (true) {
+            List<Object[]> rows = jobRepository.findActiveMatchingDataAfter(cursor, PageRequest.of(0, chunkSize));
+            if (rows.isEmpty()) {
+                return;
+            }
+            chunkConsumer.accept(toProfiles(rows));
+
+            if (rows.size() < chunkSize) {
+                return;
+            }
+            cursor = (String) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    /**
+     * Vista de matching de una sola vacante, con las mismas reglas que el escaneo; vacía si no está activa
+     */
+    public Optional<JobMatchProfile> load(String jobId) {
+        List<Object[]> rows = jobRepository.findActiveMatchingDataById(jobId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(toProfiles(rows).get(0));
+    }
+
+    // Filas [id, tipo, ubicación, lugar] a JobMatchProfile, con las skills de todas ellas en una consulta
+    private List<JobMatchProfile> toProfiles(List<Object[]> rows) {
+        List<String> jobIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            jobIds.add((String) row[0]);
+        }
+        Map<String, List<String>> skillsByJob = new HashMap<>();
+        Set<String> normalizedNames = new HashSet<>();
+        for (Object[] row : jobRepository.findSkillsByJobIds(jobIds)) {
+            if (row[1] != null) {
+                skillsByJob.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add((String) row[1]);
+                normalizedNames.add(SkillDictionary.normalize((String) row[1]));
+            }
+        }
+        Map<String, Integer> termIds = skillDictionary.lookup(normalizedNames);
+
+        List<JobMatchProfile> jobs = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String jobId = (String) row[0];
+            List<String> skills = skillsByJob.getOrDefault(jobId, List.of());
+            int[] skillIds = new int[skills.size()];
+            Set<String> distinctNames = new HashSet<>();
+            for (int i = 0; i < skills.size(); i++) {
+                String name = SkillDictionary.normalize(skills.get(i));
+                skillIds[i] = termIds.get(name);
+                distinctNames.add(name);
+            }
+            int[] distinctSkillIds = Arrays.stream(skillIds)
+                    .filter(id -> id != SkillDictionary.UNKNOWN)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            jobs.add(new JobMatchProfile(jobId, (Job.JobType) row[1], (String) row[2],
+                    row[3] != null ? (Integer) row[3] : 0, skills, skillIds, distinctSkillIds, distinctNames.size()));
+        }
+        return jobs;
+    }
+}
@@ -0,0 +1,312 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.BulkRematchReport;
+import com.clipers.clipers.dto.CandidateFeatureSnapshot;
+import com.clipers.clipers.dto.JobMatchProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rematch masivo: vuelve a puntuar todas las vacantes activas contra todos los candidatos, por ejemplo
+ * después de ajustar los pesos de las estrategias (matching.strategy.*.weight)
+ * Los vectores de candidatos se cargan una vez en memoria (arrays por bloque, sin entidades) y las vacantes
+ * se recorren por tramos del escaneo de vacantes activas. Cada tramo se reparte en el pool fork-join por bloques
+ * (bloque de vacantes × bloque de candidatos); dentro de un bloque cada vacante recorre los arrays contiguos del
+ * bloque de candidatos, así que sus datos siguen en caché durante todo el bloque
+ * En el pool solo se puntúa: los pares de cada tramo se guardan desde el hilo que lanzó el rematch, vacante a
+ * vacante en orden de id, mientras el pool puntúa el tramo siguiente. La partición no depende del paralelismo
+ * y los resultados se combinan en orden, así que cada rematch es reproducible: los mismos datos y el mismo asOf
+ * (fijado al empezar y devuelto en el informe) guardan siempre los mismos scores en el mismo orden
+ * Mientras dura, el matching incremental queda en pausa (JobMatchingExecutor.pause) y lo aplazado se ejecuta
+ * después, de modo que un cambio llegado durante el rematch se aplica encima de él y no al revés
+ */
+@Component
+public class BulkMatchingEngine {
+
+    private final ActiveJobScanner activeJobScanner;
+    private final CandidateScanner candidateScanner;
+    private final MatchScorer matchScorer;
+    private final JobService jobService;
+    private final JobMatchingExecutor jobMatchingExecutor;
+    private final ForkJoinPool pool;
+    private final TransactionTemplate readTransaction;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock running = new ReentrantLock();
+
+    @Value("${matching.bulk.job-block-size:32}")
+    private int jobBlockSize;
+
+    @Value("${matching.bulk.pause-timeout-ms:30000}")
+    private long pauseTimeoutMs;
+
+    @Autowired
+    public BulkMatchingEngine(ActiveJobScanner activeJobScanner,
+                              CandidateScanner candidateScanner,
+                              MatchScorer matchScorer,
+                              JobService jobService,
+                              JobMatchingExecutor jobMatchingExecutor,
+                              @Qualifier("bulkMatchingPool") ForkJoinPool pool,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.activeJobScanner = activeJobScanner;
+        this.candidateScanner = candidateScanner;
+        this.matchScorer = matchScorer;
+        this.jobService = jobService;
+        this.jobMatchingExecutor = jobMatchingExecutor;
+        this.pool = pool;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Ejecuta el rematch completo y devuelve el informe. Solo puede haber uno en curso a la vez
+     * @param asOf fecha hasta la que se cuenta la experiencia en curso (hoy si es null); la usada va en el informe
+     */
+    public BulkRematchReport rematchAll(LocalDate asOf) {
+        if (!running.tryLock()) {
+            throw new IllegalStateException("Ya hay un rematch masivo en curso");
+        }
+        try {
+            jobMatchingExecutor.pause(pauseTimeoutMs, TimeUnit.MILLISECONDS);
+            try {
+                return rematch(asOf != null ? asOf : LocalDate.now());
+            } finally {
+                jobMatchingExecutor.resume();
+            }
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private BulkRematchReport rematch(LocalDate asOf) {
+        long start = System.nanoTime();
+
+        List<CandidateFeatureSnapshot> candidateBlocks = new ArrayList<>();
+        readTransaction.executeWithoutResult(status -> candidateScanner.scan(asOf, candidateBlocks::add));
+        int candidateCount = 0;
+        for (CandidateFeatureSnapshot block : candidateBlocks) {
+            candidateCount += block.size();
+        }
+
+        RunState state = new RunState(matchScorer.getStrategyCount());
+        ScoredChunk[] pending = new ScoredChunk[1];
+        activeJobScanner.scan(jobs -> {
+            ScoredChunk chunk = new ScoredChunk(jobs, pool.submit(() -> scoreChunk(jobs, candidateBlocks, state)));
+            // El pool ya puntúa este tramo: mientras, se guarda el anterior
+            if (pending[0] != null) {
+                store(pending[0], state);
+            }
+            pending[0] = chunk;
+        });
+        if (pending[0] != null) {
+            store(pending[0], state);
+        }
+
+        Map<String, Long> prunedByStrategy = new LinkedHashMap<>();
+        for (int s = 0; s < matchScorer.getStrategyCount(); s++) {
+            prunedByStrategy.put(matchScorer.getStrategyName(s), state.pruned.get(s));
+        }
+
+        long totalNanos = System.nanoTime() - start;
+        long pairs = (long) state.jobs.get() * candidateCount;
+        meterRegistry.timer("matching.bulk.duration").record(totalNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("matching.bulk.pairs").increment(pairs);
+
+        BulkRematchReport report = new BulkRematchReport(state.jobs.get(), candidateCount, pairs, state.written.get(),
+                prunedByStrategy, TimeUnit.NANOSECONDS.toMillis(state.scoringNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(totalNanos),
+                pool.getParallelism(), asOf);
+        System.out.println(String.format("Rematch masivo (asOf %s): %d vacantes x %d candidatos, %.0f pares/s, %d matches guardados en %d ms",
+                asOf, report.getJobs(), report.getCandidates(), report.getPairsPerSecond(),
+                report.getMatchesWritten(), report.getTotalMillis()));
+        return report;
+    }
+
+    // Puntúa un tramo de vacantes en el pool; devuelve los pares de cada vacante en el orden del tramo
+    private List<List<MatchScorer.ScoredPair>> scoreChunk(List<JobMatchProfile> jobs,
+                                                         List<CandidateFeatureSnapshot> candidateBlocks,
+                                                         RunState state) {
+        long scoringStart = System.nanoTime();
+        List<List<JobMatchProfile>> jobBlocks = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i += jobBlockSize) {
+            jobBlocks.add(jobs.subList(i, Math.min(i + jobBlockSize, jobs.size())));
+        }
+        List<List<MatchScorer.ScoredPair>> scored =
+                new JobBlocksTask(jobBlocks, 0, jobBlocks.size(), candidateBlocks, state).invoke();
+        state.scoringNanos.addAndGet(System.nanoTime() - scoringStart);
+        return scored;
+    }
+
+    // Guarda un tramo ya puntuado desde el hilo del rematch, en orden de id (el del escaneo)
+    private void store(ScoredChunk chunk, RunState state) {
+        List<List<MatchScorer.ScoredPair>> scored = chunk.scoring.join();
+        for (int j = 0; j < chunk.jobs.size(); j++) {
+            state.written.addAndGet(store(chunk.jobs.get(j).getJobId(), scored.get(j)));
+        }
+        state.jobs.addAndGet(chunk.jobs.size());
+    }
+
+    // Cada vacante se guarda en su propia transacción: un fallo no deshace el resto del rematch
+    private int store(String jobId, List<MatchScorer.ScoredPair> pairs) {
+        try {
+            return jobService.storeJobMatches(jobId, pairs);
+        } catch (Exception e) {
+            System.err.println("Error guardando el rematch de la vacante " + jobId + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Puntúa una vacante contra un bloque de candidatos; solo se conservan los pares significativos
+    private void score(JobMatchProfile job, CandidateFeatureSnapshot candidates, List<MatchScorer.ScoredPair> out,
+                       RunState state) {
+        int[] jobSkillIds = job.getDistinctSkillIds();
+        MatchStrategy.Input input = new MatchStrategy.Input();
+        MatchScorer.MatchScore score = matchScorer.newScore();
+        MatchScorer.Stats stats = matchScorer.newStats();
+        for (int i = 0; i < candidates.size(); i++) {
+            int[] candidateSkillIds = candidates.getSkillIds(i);
+            input.set(candidates.hasSkills(i), SkillDictionary.intersectionSize(jobSkillIds, candidateSkillIds),
+                    job.getDistinctSkillCount(), candidates.hasExperience(i), candidates.getExperienceYears(i),
+                    job.getType(), job.getLocation(), job.getPlaceId(), candidates.getPlaceId(i));
+            matchScorer.score(input, score, stats);
+            if (!score.isPruned() && score.getOverallScore() >= MatchScorer.MIN_MATCH_SCORE) {
+                // El vector se reutiliza en el siguiente candidato: el par guardado lleva su propia copia
+                out.add(new MatchScorer.ScoredPair(candidates.getUserId(i), score.copy(),
+                        job.getMatchedSkills(candidateSkillIds)));
+            }
+        }
+        for (int s = 0; s < matchScorer.getStrategyCount(); s++) {
+            state.pruned.addAndGet(s, stats.getPruned(s));
+        }
+        matchScorer.publish(stats);
+    }
+
+    // Estado compartido de un rematch entre las tareas del pool y el hilo que guarda
+    private static class RunState {
+        private final AtomicInteger jobs = new AtomicInteger();
+        private final AtomicInteger written = new AtomicInteger();
+        private final AtomicLong scoringNanos = new AtomicLong();
+        private final AtomicLongArray pruned;
+
+        RunState(int strategyCount) {
+            this.pruned = new AtomicLongArray(strategyCount);
+        }
+    }
+
+    // Tramo de vacantes del escaneo y su puntuación en el pool (en curso o terminada)
+    private static class ScoredChunk {
+        private final List<JobMatchProfile> jobs;
+        private final ForkJoinTask<List<List<MatchScorer.ScoredPair>>> scoring;
+
+        ScoredChunk(List<JobMatchProfile> jobs, ForkJoinTask<List<List<MatchScorer.ScoredPair>>> scoring) {
+            this.jobs = jobs;
+            this.scoring = scoring;
+        }
+    }
+
+    /**
+     * Divide los bloques de vacantes; cada bloque se puntúa contra todos los candidatos
+     * Devuelve los pares de cada vacante en orden
+     */
+    private class JobBlocksTask extends RecursiveTask<List<List<MatchScorer.ScoredPair>>> {
+        private final List<List<JobMatchProfile>> jobBlocks;
+        private final int from;
+        private final int to;
+        private final List<CandidateFeatureSnapshot> candidateBlocks;
+        private final RunState state;
+
+        JobBlocksTask(List<List<JobMatchProfile>> jobBlocks, int from, int to,
+                      List<CandidateFeatureSnapshot> candidateBlocks, RunState state) {
+            this.jobBlocks = jobBlocks;
+            this.from = from;
+            this.to = to;
+            this.candidateBlocks = candidateBlocks;
+            this.state = state;
+        }
+
+        @Override
+        protected List<List<MatchScorer.ScoredPair>> compute() {
+            if (to - from <= 0) {
+                return new ArrayList<>();
+            }
+            if (to - from == 1) {
+                return new CandidateBlocksTask(jobBlocks.get(from), candidateBlocks, 0, candidateBlocks.size(), state)
+                        .compute();
+            }
+
+            int mid = (from + to) >>> 1;
+            JobBlocksTask left = new JobBlocksTask(jobBlocks, from, mid, candidateBlocks, state);
+            JobBlocksTask right = new JobBlocksTask(jobBlocks, mid, to, candidateBlocks, state);
+            left.fork();
+            List<List<MatchScorer.ScoredPair>> rightResult = right.compute();
+            List<List<MatchScorer.ScoredPair>> result = left.join();
+            result.addAll(rightResult);
+            return result;
+        }
+    }
+
+    // Divide los bloques de candidatos para un bloque de vacantes: una lista de pares por vacante del bloque
+    private class CandidateBlocksTask extends RecursiveTask<List<List<MatchScorer.ScoredPair>>> {
+        private final List<JobMatchProfile> jobBlock;
+        private final List<CandidateFeatureSnapshot> candidateBlocks;
+        private final int from;
+        private final int to;
+        private final RunState state;
+
+        CandidateBlocksTask(List<JobMatchProfile> jobBlock, List<CandidateFeatureSnapshot> candidateBlocks,
+                            int from, int to, RunState state) {
+            this.jobBlock = jobBlock;
+            this.candidateBlocks = candidateBlocks;
+            this.from = from;
+            this.to = to;
+            this.state = state;
+        }
+
+        @Override
+        protected List<List<MatchScorer.ScoredPair>> compute() {
+            if (to - from <= 1) {
+                List<List<MatchScorer.ScoredPair>> scored = new ArrayList<>(jobBlock.size());
+                for (JobMatchProfile job : jobBlock) {
+                    List<MatchScorer.ScoredPair> pairs = new ArrayList<>();
+                    if (from < to) {
+                        score(job, candidateBlocks.get(from), pairs, state);
+                    }
+                    scored.add(pairs);
+                }
+                return scored;
+            }
+
+            int mid = (from + to) >>> 1;
+            CandidateBlocksTask left = new CandidateBlocksTask(jobBlock, candidateBlocks, from, mid, state);
+            CandidateBlocksTask right = new CandidateBlocksTask(jobBlock, candidateBlocks, mid, to, state);
+            left.fork();
+            List<List<MatchScorer.ScoredPair>> rightResult = right.compute();
+            // Los candidatos de la izquierda van antes: el orden por userId no depende de qué hilo termine primero
+            List<List<MatchScorer.ScoredPair>> result = left.join();
+            for (int j = 0; j < result.size(); j++) {
+                result.get(j).addAll(rightResult.get(j));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.CandidateFeature;
+import com.clipers.clipers.entity.User;
+import com.clipers.clipers.repository.ATSProfileRepository;
+import com.clipers.clipers.repository.CandidateFeatureRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantiene los vectores de características de los candidatos (CandidateFeature)
+ * Se recalculan antes del commit de cada cambio de perfil, dentro de la misma transacción, de modo que
+ * el matching que se dispara después del commit ya lee el vector actualizado
+ */
+@Service
+@Transactional
+public class CandidateFeatureService {
+
+    private final CandidateFeatureRepository candidateFeatureRepository;
+    private final ATSProfileRepository atsProfileRepository;
+    private final SkillDictionary skillDictionary;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${matching.scan.chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    public CandidateFeatureService(CandidateFeatureRepository candidateFeatureRepository,
+                                   ATSProfileRepository atsProfileRepository,
+                                   SkillDictionary skillDictionary,
+                                   PlatformTransactionManager transactionManager) {
+        this.candidateFeatureRepository = candidateFeatureRepository;
+        this.atsProfileRepository = atsProfileRepository;
+        this.skillDictionary = skillDictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProfileChanged(ATSProfileService.CandidateProfileChangedEvent event) {
+        try {
+            if (event.getUserId() == null) {
+                candidateFeatureRepository.deleteAllInBatch();
+            } else {
+                refresh(event.getUserId());
+            }
+        } catch (Exception e) {
+            System.err.println("Error actualizando características del candidato " + event.getUserId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula el vector de un candidato a partir de su perfil ATS, o lo borra si ya no tiene perfil
+     */
+    public void refresh(String userId) {
+        if (!atsProfileRepository.existsByUserIdAndUserRole(userId, User.Role.CANDIDATE)) {
+            candidateFeatureRepository.findById(userId).ifPresent(candidateFeatureRepository::delete);
+            return;
+        }
+
+        Set<String> skillNames = new HashSet<>();
+        for (Object[] row : atsProfileRepository.findSkillNamesByUserIds(List.of(userId))) {
+            if (row[1] != null) {
+                skillNames.add(SkillDictionary.normalize((String) row[1]));
+            }
+        }
+
+        int experienceCount = 0;
+        int closedMonths = 0;
+        List<Integer> ongoingStarts = new ArrayList<>();
+        for (Object[] row : atsProfileRepository.findExperiencePeriodsByUserIds(List.of(userId))) {
+            experienceCount++;
+            LocalDate startDate = (LocalDate) row[1];
+            LocalDate endDate = (LocalDate) row[2];
+            // Experiencias sin fecha de inicio (las generadas desde el Cliper) cuentan como registradas, con 0 meses
+            if (startDate == null) {
+                continue;
+            }
+            if (endDate == null) {
+                ongoingStarts.add(toEpochMonth(startDate));
+            } else {
+                closedMonths += (int) Math.max(Period.between(startDate, endDate).toTotalMonths(), 0);
+            }
+        }
+
+        CandidateFeature feature = candidateFeatureRepository.findById(userId).orElseGet(() -> new CandidateFeature(userId));
+        feature.setSkillIds(skillDictionary.resolve(skillNames));
+        feature.setExperienceCount(experienceCount);
+        feature.setClosedExperienceMonths(closedMonths);
+        feature.setOngoingExperienceStartMonths(ongoingStarts.stream().mapToInt(Integer::intValue).toArray());
+        feature.setPlaceId(atsProfileRepository.findPlaceIdByUserId(userId).orElse(null));
+        candidateFeatureRepository.save(feature);
+    }
+
+    /**
+     * Genera los vectores que faltan (perfiles anteriores a esta tabla) por bloques, cada uno en su transacción
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillMissing() {
+        try {
+            int total = 0;
+            while (true) {
+                List<String> userIds = candidateFeatureRepository.findUserIdsWithoutFeatures(
+                        User.Role.CANDIDATE, PageRequest.of(0, chunkSize));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                transactionTemplate.executeWithoutResult(status -> userIds.forEach(this::refresh));
+                total += userIds.size();
+                if (userIds.size() < chunkSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                System.out.println("Vectores de características generados para " + total + " candidatos");
+            }
+        } catch (Exception e) {
+            System.err.println("Error generando vectores de características: " + e.getMessage());
+        }
+    }
+
+    public static int toEpochMonth(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+}
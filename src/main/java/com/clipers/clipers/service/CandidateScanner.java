@@ -0,0 +1,88 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.CandidateFeatureSnapshot;
+import com.clipers.clipers.entity.CandidateFeature;
+import com.clipers.clipers.entity.User;
+import com.clipers.clipers.repository.ATSProfileRepository;
+import com.clipers.clipers.repository.CandidateFeatureRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Recorre los candidatos con perfil ATS por bloques (keyset sobre user.id) leyendo sus vectores de
+ * características precalculados: una consulta por bloque sin importar su tamaño. Al terminar cada bloque
+ * se vacía el contexto de persistencia, así que la memoria no crece con el número de candidatos
+ */
+@Component
+public class CandidateScanner {
+
+    private final CandidateFeatureRepository candidateFeatureRepository;
+    private final ATSProfileRepository atsProfileRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${matching.scan.chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    public CandidateScanner(CandidateFeatureRepository candidateFeatureRepository,
+                            ATSProfileRepository atsProfileRepository) {
+        this.candidateFeatureRepository = candidateFeatureRepository;
+        this.atsProfileRepository = atsProfileRepository;
+    }
+
+    /**
+     * Entrega los candidatos bloque a bloque. Debe invocarse dentro de una transacción: tras cada bloque
+     * se hace flush y clear, por lo que las entidades cargadas antes quedan desasociadas
+     */
+    public void scan(Consumer<CandidateFeatureSnapshot> chunkConsumer) {
+        scan(LocalDate.now(), chunkConsumer);
+    }
+
+    /**
+     * Igual que scan(consumer), pero la experiencia en curso se cuenta hasta asOf en lugar de hasta hoy
+     */
+    public void scan(LocalDate asOf, Consumer<CandidateFeatureSnapshot> chunkConsumer) {
+        int currentMonth = CandidateFeatureService.toEpochMonth(asOf);
+        String cursor = "";
+        while (true) {
+            List<CandidateFeature> features = candidateFeatureRepository.findCandidatesAfter(
+                    User.Role.CANDIDATE, cursor, PageRequest.of(0, chunkSize));
+            if (features.isEmpty()) {
+                return;
+            }
+
+            chunkConsumer.accept(CandidateFeatureSnapshot.of(features, currentMonth));
+
+            entityManager.flush();
+            entityManager.clear();
+
+            if (features.size() < chunkSize) {
+                return;
+            }
+            cursor = features.get(features.size() - 1).getUserId();
+        }
+    }
+
+    /**
+     * Vector de un único candidato, o vacío si ya no tiene perfil ATS
+     */
+    public Optional<CandidateFeatureSnapshot> load(String userId) {
+        if (!atsProfileRepository.existsByUserIdAndUserRole(userId, User.Role.CANDIDATE)) {
+            return Optional.empty();
+        }
+        return candidateFeatureRepository.findById(userId)
+                .map(feature -> CandidateFeatureSnapshot.of(List.of(feature),
+                        CandidateFeatureService.toEpochMonth(LocalDate.now())));
+    }
+}
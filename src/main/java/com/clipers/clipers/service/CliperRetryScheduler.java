@@ -0,0 +1,84 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.Cliper;
+import com.clipers.clipers.repository.CliperRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Política de reintentos del procesamiento de video
+ * Backoff exponencial con jitter: el intento n espera entre la mitad y el total de base * 2^(n-1),
+ * con un tope. Los reintentos se guardan en la propia tabla (nextAttemptAt) y VideoProcessingQueue
+ * los reclama cuando vencen, con un límite de reintentos simultáneos
+ */
+@Component
+public class CliperRetryScheduler {
+
+    private final CliperRepository cliperRepository;
+    private final AtomicLong retryQueueDepth = new AtomicLong();
+    private final AtomicLong oldestRetryAgeSeconds = new AtomicLong();
+
+    @Value("${video.processing.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${video.processing.retry.base-delay-seconds:30}")
+    private long baseDelaySeconds;
+
+    @Value("${video.processing.retry.max-delay-seconds:900}")
+    private long maxDelaySeconds;
+
+    @Value("${video.processing.retry.max-in-flight:2}")
+    private int maxInFlightRetries;
+
+    @Autowired
+    public CliperRetryScheduler(CliperRepository cliperRepository, MeterRegistry meterRegistry) {
+        this.cliperRepository = cliperRepository;
+        meterRegistry.gauge("video.processing.retry.queue.depth", retryQueueDepth);
+        meterRegistry.gauge("video.processing.retry.queue.oldest.age.seconds", oldestRetryAgeSeconds);
+    }
+
+    /**
+     * Momento del siguiente intento tras fallar el intento indicado, o null si ya no quedan intentos
+     */
+    public LocalDateTime nextAttemptAt(int failedAttempt) {
+        if (failedAttempt >= maxAttempts) {
+            return null;
+        }
+        return LocalDateTime.now().plus(backoff(failedAttempt));
+    }
+
+    public Duration backoff(int failedAttempt) {
+        int exponent = Math.min(Math.max(failedAttempt - 1, 0), 20);
+        long delaySeconds = Math.min(baseDelaySeconds << exponent, maxDelaySeconds);
+        // "Equal jitter": evita que los reintentos de una misma caída lleguen todos a la vez
+        long halfMillis = delaySeconds * 500;
+        return Duration.ofMillis(halfMillis + ThreadLocalRandom.current().nextLong(halfMillis + 1));
+    }
+
+    public int getMaxInFlightRetries() {
+        return maxInFlightRetries;
+    }
+
+    /**
+     * Refresca las métricas de la cola de reintentos (profundidad y antigüedad del más antiguo)
+     */
+    @Scheduled(fixedDelayString = "${video.processing.retry.metrics-interval-ms:15000}")
+    public void refreshMetrics() {
+        try {
+            retryQueueDepth.set(cliperRepository.countScheduledRetries(Cliper.Status.UPLOADED));
+            LocalDateTime oldest = cliperRepository.findOldestScheduledRetry(Cliper.Status.UPLOADED);
+            long age = oldest != null ? Duration.between(oldest, LocalDateTime.now()).getSeconds() : 0;
+            oldestRetryAgeSeconds.set(Math.max(age, 0));
+        } catch (Exception e) {
+            System.err.println("Error actualizando métricas de reintentos: " + e.getMessage());
+        }
+    }
+}
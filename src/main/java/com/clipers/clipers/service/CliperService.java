@@ -1,5 +1,6 @@
 package com.clipers.clipers.service;
 
+import com.clipers.clipers.dto.FeedCursor;
 import com.clipers.clipers.dto.VideoProcessingResponse;
 import com.clipers.clipers.entity.ATSProfile;
 import com.clipers.clipers.entity.Cliper;
@@ -9,21 +10,25 @@ import com.clipers.clipers.entity.User;
 import com.clipers.clipers.repository.ATSProfileRepository;
 import com.clipers.clipers.repository.CliperRepository;
 import com.clipers.clipers.repository.UserRepository;
+import com.clipers.clipers.service.VideoStorageService.StagedVideo;
+import com.clipers.clipers.service.VideoStorageService.StoredVideo;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
-
-import java.util.HashMap;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -40,101 +45,236 @@ public class CliperService {
     private final UserRepository userRepository;
     private final ATSProfileRepository atsProfileRepository;
     private final NotificationService notificationService;
-    private final RestTemplate restTemplate;
-
-    @Value("${video.processing.service.url:https://micoservicioprocesarvideo.onrender.com/upload-video}")
-    private String videoProcessingServiceUrl;
-
-    @Value("${file.upload.base.url:http://localhost:8080}")
-    private String fileUploadBaseUrl;
+    private final VideoStorageService videoStorageService;
+    private final VideoProcessingCache videoProcessingCache;
+    private final SkillDictionary skillDictionary;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public CliperService(CliperRepository cliperRepository,
                          UserRepository userRepository,
                          ATSProfileRepository atsProfileRepository,
                          NotificationService notificationService,
-                         RestTemplate restTemplate) {
+                         VideoStorageService videoStorageService,
+                         VideoProcessingCache videoProcessingCache,
+                         SkillDictionary skillDictionary,
+                         ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager) {
         this.cliperRepository = cliperRepository;
         this.userRepository = userRepository;
         this.atsProfileRepository = atsProfileRepository;
         this.notificationService = notificationService;
-        this.restTemplate = restTemplate;
+        this.videoStorageService = videoStorageService;
+        this.videoProcessingCache = videoProcessingCache;
+        this.skillDictionary = skillDictionary;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Template Method implementado implícitamente
-     * Define el flujo de creación y procesamiento de Clipers
-     * Ahora procesa síncronamente antes de guardar para rellenar ATS automáticamente
+     * Define el flujo de creación de Clipers. El procesamiento del video ya no bloquea
+     * la petición: el Cliper queda en UPLOADED y VideoProcessingQueue lo procesa en segundo plano
+     * Sin transacción: el video se recibe antes de abrirla, así una subida lenta no retiene una conexión
+     * ni el bloqueo de la fila de video_blobs
      */
-    public Cliper createCliper(String userId, String title, String description, String videoUrl, Integer duration, org.springframework.web.multipart.MultipartFile videoFile) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Cliper createCliper(String userId, String title, String description, String videoUrl, Integer duration, MultipartFile videoFile) {
         // Step 1: Validate user
-        User user = validateAndGetUser(userId);
+        validateAndGetUser(userId);
+
+        // Step 2: Receive video file (single write, hash computed while streaming)
+        StagedVideo stagedVideo = null;
+        if (videoFile != null) {
+            try (InputStream videoStream = videoFile.getInputStream()) {
+                stagedVideo = videoStorageService.stage(videoStream, videoFile.getOriginalFilename());
+            } catch (IOException e) {
+                throw new RuntimeException("Error al leer el archivo de video: " + e.getMessage());
+            }
+        }
+
+        return registerStagedCliper(userId, title, description, videoUrl, duration, stagedVideo);
+    }
+
+    /**
+     * Variante de creación que recibe el cuerpo de la petición como stream,
+     * sin que el contenedor lo almacene antes en un archivo temporal
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Cliper createCliperFromStream(String userId, String title, String description, Integer duration,
+                                         InputStream videoStream, String originalFilename) {
+        validateAndGetUser(userId);
+        StagedVideo stagedVideo = videoStorageService.stage(videoStream, originalFilename);
+        return registerStagedCliper(userId, title, description, null, duration, stagedVideo);
+    }
 
-        // Step 2: Check if user already has a cliper and delete it if exists
-        List<Cliper> existingClipers = cliperRepository.findByUserId(userId);
+    // Una sola transacción corta: referencia al blob, archivo en su sitio y Cliper creado
+    private Cliper registerStagedCliper(String userId, String title, String description, String videoUrl,
+                                        Integer duration, StagedVideo stagedVideo) {
+        try {
+            return transactionTemplate.execute(status -> {
+                User user = validateAndGetUser(userId);
+                StoredVideo storedVideo = stagedVideo != null ? videoStorageService.store(stagedVideo) : null;
+                return registerCliper(user, title, description, videoUrl, duration, storedVideo);
+            });
+        } finally {
+            videoStorageService.discard(stagedVideo);
+        }
+    }
+
+    private Cliper registerCliper(User user, String title, String description, String videoUrl,
+                                  Integer duration, StoredVideo storedVideo) {
+        // Check if user already has a cliper and delete it if exists
+        List<Cliper> existingClipers = cliperRepository.findByUserId(user.getId());
         if (!existingClipers.isEmpty()) {
             // Delete existing cliper(s) to allow creating a new one
             for (Cliper existingCliper : existingClipers) {
                 cliperRepository.delete(existingCliper);
+                videoStorageService.release(existingCliper.getContentHash());
             }
         }
 
-        // Step 3: Save video file first
-        String savedVideoUrl = null;
-        java.nio.file.Path savedFilePath = null;
-        if (videoFile != null) {
-            savedVideoUrl = saveVideoFile(videoFile);
-            savedFilePath = java.nio.file.Paths.get("./uploads/videos", savedVideoUrl.substring(savedVideoUrl.lastIndexOf('/') + 1));
+        // Create cliper in UPLOADED state, the worker pool drives the rest of the states
+        Cliper cliper = new Cliper(title, description, storedVideo != null ? storedVideo.getUrl() : videoUrl, duration, user);
+        cliper.setStatus(Cliper.Status.UPLOADED);
+        if (storedVideo != null) {
+            cliper.setSourceFilePath(storedVideo.getPath().toString());
+            cliper.setContentHash(storedVideo.getSha256());
         }
 
-        // Step 4: Process video synchronously before saving cliper
-        VideoProcessingResponse processingResponse = null;
-        if (savedFilePath != null) {
-            processingResponse = callVideoProcessingService(savedFilePath);
+        // Same content already processed: reuse the result instead of calling the microservice again
+        Optional<VideoProcessingResponse> cachedResult = storedVideo != null
+                ? videoProcessingCache.get(storedVideo.getSha256())
+                : Optional.empty();
+        if (cachedResult.isPresent()) {
+            System.out.println("Video ya procesado " + storedVideo.getSha256() + ": reutilizando resultado de la caché");
+            cliper = cliperRepository.save(cliper);
+            return applyProcessingResult(cliper, cachedResult.get());
         }
 
-         // If microservice fails, create simulated data based on expected JSON format
-         if (processingResponse == null) {
-             processingResponse = createSimulatedVideoProcessingResponse();
-         }
+        // Save cliper and enqueue it (the queue reacts after commit)
+        cliper = cliperRepository.save(cliper);
+        eventPublisher.publishEvent(new CliperUploadedEvent(cliper.getId()));
 
-        // Step 5: Create new cliper with processing results
-        Cliper cliper = new Cliper(title, description, savedVideoUrl != null ? savedVideoUrl : videoUrl, duration, user);
+        return cliper;
+    }
 
-        // Set processing data if available
-        if (processingResponse != null) {
-            cliper.setTranscription(processingResponse.getTranscription());
-            cliper.setStatus(Cliper.Status.DONE);
+    /**
+     * Completa el procesamiento de un Cliper reclamado por un worker.
+     * Si el intento ya no coincide (lease vencido y reclamado por otro worker) se descarta el resultado
+     */
+    public void completeProcessing(String cliperId, int attempt, VideoProcessingResponse processingResponse) {
+        Optional<Cliper> found = cliperRepository.findById(cliperId);
+        if (found.isEmpty() || !isCurrentAttempt(found.get(), attempt)) {
+            System.out.println("Resultado descartado para cliper " + cliperId + " (intento " + attempt + " ya no vigente)");
+            return;
+        }
+        Cliper cliper = found.get();
 
-            // Extract skills from profile if available
-            if (processingResponse.getProfile() != null) {
-                List<String> skills = extractSkillsFromProfile(processingResponse.getProfile());
-                // Note: Cliper entity might need skills field, for now we'll store in transcription
-            }
+        // If there is no video file to process, create simulated data based on expected JSON format
+        if (processingResponse == null) {
+            processingResponse = createSimulatedVideoProcessingResponse();
         } else {
-            // Simulated processing
-            cliper.setTranscription("Procesamiento simulado completado");
-            cliper.setStatus(Cliper.Status.DONE);
+            // Only real microservice results are reused by later uploads of the same video
+            videoProcessingCache.put(cliper.getContentHash(), processingResponse);
         }
 
-        // Step 6: Save cliper
+        applyProcessingResult(cliper, processingResponse);
+    }
+
+    private Cliper applyProcessingResult(Cliper cliper, VideoProcessingResponse processingResponse) {
+        User user = cliper.getUser();
+
+        cliper.setTranscription(processingResponse.getTranscription());
+        cliper.setStatus(Cliper.Status.DONE);
+        cliper.setLeaseExpiresAt(null);
+        cliper.setNextAttemptAt(null);
         cliper = cliperRepository.save(cliper);
 
-        // Step 4: Always create/update ATS profile with microservice data (regenerate each time)
-         if (processingResponse != null && processingResponse.getProfile() != null) {
-             // Use microservice data to create/update ATS profile (always regenerate)
-             generateOrUpdateATSProfileFromMicroservice(user, processingResponse.getProfile(), processingResponse.getTranscription(), cliper.getId());
-         } else {
-             // If no microservice data, update cliper ID if profile exists
-             updateATSProfileWithCliperId(user.getId(), cliper.getId());
-         }
+        // Always create/update ATS profile with microservice data (regenerate each time)
+        if (processingResponse.getProfile() != null) {
+            generateOrUpdateATSProfileFromMicroservice(user, processingResponse.getProfile(), processingResponse.getTranscription(), cliper.getId());
+        } else {
+            // If no microservice data, update cliper ID if profile exists
+            updateATSProfileWithCliperId(user.getId(), cliper.getId());
+        }
 
-        // Step 7: Send notification
         notificationService.notifyCliperProcessed(user.getId(), cliper.getId());
-
         return cliper;
     }
 
+    /**
+     * Registra el fallo del intento indicado: programa un reintento en retryAt
+     * o, si es null (intentos agotados), marca el Cliper como FAILED
+     */
+    public void failProcessing(String cliperId, int attempt, String reason, LocalDateTime retryAt) {
+        cliperRepository.findById(cliperId)
+                .filter(cliper -> isCurrentAttempt(cliper, attempt))
+                .ifPresent(cliper -> {
+                    System.err.println("Procesamiento fallido para cliper " + cliperId + " (intento " + attempt + "): " + reason);
+                    if (retryAt != null) {
+                        System.out.println("Reintento del cliper " + cliperId + " programado para " + retryAt);
+                        cliper.setStatus(Cliper.Status.UPLOADED);
+                        cliper.setNextAttemptAt(retryAt);
+                    } else {
+                        cliper.setStatus(Cliper.Status.FAILED);
+                    }
+                    cliper.setLeaseExpiresAt(null);
+                    cliperRepository.save(cliper);
+                });
+    }
+
+    /**
+     * Devuelve a la cola un Cliper cuya llamada no llegó a realizarse, sin contar el intento
+     */
+    public void releaseProcessing(String cliperId, int attempt) {
+        cliperRepository.findById(cliperId)
+                .filter(cliper -> isCurrentAttempt(cliper, attempt))
+                .ifPresent(cliper -> {
+                    cliper.setStatus(Cliper.Status.UPLOADED);
+                    cliper.setProcessingAttempts(attempt - 1);
+                    cliper.setLeaseExpiresAt(null);
+                    cliperRepository.save(cliper);
+                });
+    }
+
+    private boolean isCurrentAttempt(Cliper cliper, int attempt) {
+        return cliper.getStatus() == Cliper.Status.PROCESSING
+                && cliper.getProcessingAttempts() != null
+                && cliper.getProcessingAttempts() == attempt;
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> findClaimableCliperIds(int limit) {
+        return cliperRepository.findClaimableIds(Cliper.Status.UPLOADED, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> findRetryableCliperIds(int limit) {
+        return cliperRepository.findRetryableIds(Cliper.Status.UPLOADED, Cliper.Status.PROCESSING,
+                LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Reclama un Cliper para un worker (UPLOADED -> PROCESSING) con un lease de visibilidad.
+     * REQUIRES_NEW porque también se invoca desde listeners after-commit
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean claimForProcessing(String cliperId, LocalDateTime leaseUntil, int maxAttempts) {
+        return cliperRepository.claimForProcessing(cliperId, Cliper.Status.UPLOADED, Cliper.Status.PROCESSING,
+                LocalDateTime.now(), leaseUntil, maxAttempts) == 1;
+    }
+
+    /**
+     * Recuperación ante caídas: los Clipers con lease vencido que agotaron sus intentos pasan a FAILED
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int failExpiredProcessing(int maxAttempts) {
+        return cliperRepository.failExpiredProcessing(Cliper.Status.PROCESSING, Cliper.Status.FAILED,
+                LocalDateTime.now(), maxAttempts);
+    }
+
     private User validateAndGetUser(String userId) {
         // userId es el ID real del usuario
         User user = userRepository.findById(userId)
@@ -171,6 +311,7 @@ public class CliperService {
             atsProfile.generateFromCliperData(cliper.getTranscription(), cliper.getSkills());
             
             atsProfileRepository.save(atsProfile);
+            eventPublisher.publishEvent(new ATSProfileService.CandidateProfileChangedEvent(cliper.getUser().getId()));
             
         } catch (Exception e) {
             System.err.println("Error generando perfil ATS para cliper " + cliper.getId() + ": " + e.getMessage());
@@ -194,12 +335,32 @@ public class CliperService {
         return cliperRepository.findProcessedClipersOrderByCreatedAtDesc(pageable);
     }
 
+    /**
+     * Página de clipers procesados que empieza justo después del cursor (o al principio si es null)
+     * Devuelve hasta limit + 1 clipers para que el llamador sepa si hay más
+     */
+    @Transactional(readOnly = true)
+    public List<Cliper> findProcessedClipersPage(FeedCursor after, int limit) {
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        return after == null
+                ? cliperRepository.findProcessedFeed(pageable)
+                : cliperRepository.findProcessedFeedAfter(after.getCreatedAt(), after.getId(), pageable);
+    }
+
     public Page<Cliper> searchClipers(String query, Pageable pageable) {
-        return cliperRepository.searchClipers(query, pageable);
+        String tsQuery = FullTextQuery.toPrefixQuery(query);
+        if (tsQuery == null) {
+            return Page.empty(pageable);
+        }
+        return cliperRepository.searchClipers(tsQuery, pageable);
     }
 
     public List<Cliper> findBySkill(String skill) {
-        return cliperRepository.findBySkillsContaining(skill);
+        List<Integer> termIds = skillDictionary.search(skill);
+        if (termIds.isEmpty()) {
+            return List.of();
+        }
+        return cliperRepository.findBySkillTerms(termIds);
     }
 
     public Cliper updateCliper(String id, String title, String description) {
@@ -227,6 +388,7 @@ public class CliperService {
         }
 
         cliperRepository.deleteById(id);
+        videoStorageService.release(cliper.getContentHash());
     }
 
     public List<Cliper> findByStatus(Cliper.Status status) {
@@ -244,98 +406,19 @@ public class CliperService {
             throw new IllegalStateException("Solo se puede reintentar el procesamiento de Clipers fallidos");
         }
 
-        // Resetear estado y reiniciar procesamiento con simulación (no tenemos el archivo original)
-        cliper.setStatus(Cliper.Status.UPLOADED);
-        cliper = cliperRepository.save(cliper);
-
-        // Para retry, usamos procesamiento simulado ya que no tenemos el archivo original
-        new Thread(() -> {
-            try {
-                Thread.sleep(100);
-                Cliper freshCliper = cliperRepository.findById(cliperId)
-                    .orElseThrow(() -> new RuntimeException("Cliper no encontrado: " + cliperId));
-
-                freshCliper.setStatus(Cliper.Status.PROCESSING);
-                cliperRepository.save(freshCliper);
-
-                System.out.println("Reintentando procesamiento simulado para cliper: " + freshCliper.getId());
-                freshCliper.processVideo();
-
-                if (freshCliper.getStatus() == Cliper.Status.DONE) {
-                    cliperRepository.save(freshCliper);
-                    generateOrUpdateATSProfile(freshCliper);
-                    notificationService.notifyCliperProcessed(freshCliper.getUser().getId(), freshCliper.getId());
-                } else {
-                    freshCliper.setStatus(Cliper.Status.FAILED);
-                    cliperRepository.save(freshCliper);
-                }
-
-            } catch (Exception e) {
-                System.err.println("Error reintentando procesamiento para cliper " + cliperId + ": " + e.getMessage());
-            }
-        }).start();
-    }
-
-    /**
-     * Llama al microservicio externo para procesar el video
-     */
-    private VideoProcessingResponse callVideoProcessingService(java.nio.file.Path filePath) {
-        try {
-            System.out.println("=== LLAMANDO AL MICROSERVICIO ===");
-            System.out.println("URL: " + videoProcessingServiceUrl);
-            System.out.println("Archivo: " + filePath.toString());
-            System.out.println("Archivo existe: " + java.nio.file.Files.exists(filePath));
-            System.out.println("Tamaño del archivo: " + (java.nio.file.Files.exists(filePath) ? java.nio.file.Files.size(filePath) : "N/A"));
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("file", new org.springframework.core.io.FileSystemResource(filePath.toFile()));
-
-            HttpEntity<MultiValueMap<String, Object>> entity = new HttpEntity<>(body, headers);
-
-            System.out.println("Enviando petición al microservicio...");
-            ResponseEntity<VideoProcessingResponse> response = restTemplate.postForEntity(
-                videoProcessingServiceUrl,
-                entity,
-                VideoProcessingResponse.class
-            );
-
-            System.out.println("=== RESPUESTA DEL MICROSERVICIO ===");
-            System.out.println("Status: " + response.getStatusCode());
-            VideoProcessingResponse responseBody = response.getBody();
-            System.out.println("Body: " + responseBody);
-
-            if (responseBody != null) {
-                System.out.println("📝 Transcripción: " + responseBody.getTranscription());
-                if (responseBody.getProfile() != null) {
-                    System.out.println("👤 Nombre: " + responseBody.getProfile().getName());
-                    System.out.println("💼 Profesión: " + responseBody.getProfile().getProfession());
-                    System.out.println("📚 Experiencia: " + responseBody.getProfile().getExperience());
-                    System.out.println("🎓 Educación: " + responseBody.getProfile().getEducation());
-                    System.out.println("🛠️ Tecnologías: " + responseBody.getProfile().getTechnologies());
-                    System.out.println("🌐 Idiomas: " + responseBody.getProfile().getLanguages());
-                    System.out.println("🏆 Logros: " + responseBody.getProfile().getAchievements());
-                    System.out.println("🤝 Habilidades blandas: " + responseBody.getProfile().getSoftSkills());
-                } else {
-                    System.out.println("⚠️ Perfil es null");
-                }
-            }
+        // Se reenvía el archivo original guardado, no una simulación
+        if (cliper.getSourceFilePath() != null && !Files.exists(Paths.get(cliper.getSourceFilePath()))) {
+            throw new IllegalStateException("El archivo original del Cliper ya no está disponible");
+        }
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                System.out.println("✅ Microservicio respondió exitosamente");
-                return response.getBody();
-            } else {
-                System.err.println("❌ Error en microservicio: " + response.getStatusCode());
-                return null;
-            }
+        // Resetear estado y devolver el Cliper a la cola como reintento inmediato (cuenta en el límite de reintentos)
+        cliper.setStatus(Cliper.Status.UPLOADED);
+        cliper.setProcessingAttempts(0);
+        cliper.setLeaseExpiresAt(null);
+        cliper.setNextAttemptAt(LocalDateTime.now());
+        cliperRepository.save(cliper);
 
-        } catch (Exception e) {
-            System.err.println("❌ Error llamando al microservicio de procesamiento: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
+        eventPublisher.publishEvent(new CliperUploadedEvent(cliperId));
     }
 
     /**
@@ -422,7 +505,9 @@ public class CliperService {
      */
     public void clearAllClipers() {
         cliperRepository.deleteAll();
+        videoStorageService.releaseAll();
         atsProfileRepository.deleteAll();
+        eventPublisher.publishEvent(new ATSProfileService.CandidateProfileChangedEvent(null));
     }
 
     /**
@@ -431,33 +516,10 @@ public class CliperService {
     public void clearAllData() {
         // Primero eliminar clipers
         cliperRepository.deleteAll();
+        videoStorageService.releaseAll();
         // Luego eliminar perfiles ATS
         atsProfileRepository.deleteAll();
-    }
-
-    /**
-     * Guarda el archivo de video y retorna la URL
-     */
-    private String saveVideoFile(org.springframework.web.multipart.MultipartFile videoFile) {
-        try {
-            // Crear directorio si no existe
-            java.nio.file.Path uploadDir = java.nio.file.Paths.get("./uploads/videos");
-            if (!java.nio.file.Files.exists(uploadDir)) {
-                java.nio.file.Files.createDirectories(uploadDir);
-            }
-
-            // Generar nombre único para el archivo
-            String fileName = "video_" + System.currentTimeMillis() + "_" + videoFile.getOriginalFilename();
-            java.nio.file.Path filePath = uploadDir.resolve(fileName);
-
-            // Guardar el archivo
-            java.nio.file.Files.copy(videoFile.getInputStream(), filePath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-
-            // Devolver URL completa para que el frontend pueda acceder
-            return fileUploadBaseUrl + "/uploads/videos/" + fileName;
-        } catch (java.io.IOException e) {
-            throw new RuntimeException("Error al guardar el archivo de video: " + e.getMessage());
-        }
+        eventPublisher.publishEvent(new ATSProfileService.CandidateProfileChangedEvent(null));
     }
 
     /**
@@ -605,6 +667,7 @@ public class CliperService {
             }
 
             ATSProfile savedProfile = atsProfileRepository.save(atsProfile);
+            eventPublisher.publishEvent(new ATSProfileService.CandidateProfileChangedEvent(user.getId()));
             System.out.println("✅ Perfil ATS guardado exitosamente con ID: " + savedProfile.getId());
             System.out.println("📊 Estadísticas del perfil:");
             System.out.println("  - Educación: " + savedProfile.getEducation().size());
@@ -671,6 +734,7 @@ public class CliperService {
             }
 
             atsProfileRepository.save(atsProfile);
+            eventPublisher.publishEvent(new ATSProfileService.CandidateProfileChangedEvent(user.getId()));
 
         } catch (Exception e) {
             System.err.println("Error generando perfil ATS simulado para usuario " + user.getId() + ": " + e.getMessage());
@@ -837,4 +901,15 @@ public class CliperService {
             System.err.println("Error actualizando perfil ATS con cliper ID para usuario " + userId + ": " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Evento publicado al registrar un Cliper nuevo, consumido por VideoProcessingQueue
+    public static class CliperUploadedEvent {
+        private final String cliperId;
+
+        public CliperUploadedEvent(String cliperId) {
+            this.cliperId = cliperId;
+        }
+
+        public String getCliperId() { return cliperId; }
+    }
+}
@@ -0,0 +1,60 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.CommentDTO;
+import com.clipers.clipers.dto.FeedCursor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Escribe el hilo completo de un post como un array JSON, a medida que lo lee
+ * Recorre el hilo por keyset en tramos de stream-chunk-size comentarios: en memoria solo hay un tramo,
+ * sea cual sea el tamaño del hilo, y la conexión a la base de datos se devuelve entre tramos en lugar
+ * de quedar retenida mientras un cliente lento lee la respuesta
+ */
+@Component
+public class CommentThreadWriter {
+
+    private final PostService postService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${posts.comments.stream-chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    public CommentThreadWriter(PostService postService, ObjectMapper objectMapper) {
+        this.postService = postService;
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(String postId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            FeedCursor after = null;
+            boolean hasMore = true;
+            while (hasMore) {
+                List<CommentDTO> comments = postService.getCommentsPage(postId, after, chunkSize);
+                hasMore = comments.size() > chunkSize;
+                if (hasMore) {
+                    comments = comments.subList(0, chunkSize);
+                }
+                for (CommentDTO comment : comments) {
+                    generator.writeObject(comment);
+                }
+                generator.flush();
+                if (hasMore) {
+                    CommentDTO last = comments.get(comments.size() - 1);
+                    after = new FeedCursor(last.getCreatedAt(), last.getId());
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.clipers.clipers.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estrategia basada en experiencia: años totales del candidato según el tipo de vacante
+ */
+@Component
+@Order(2)
+public class ExperienceMatchStrategy implements MatchStrategy {
+
+    private final double weight;
+
+    @Autowired
+    public ExperienceMatchStrategy(@Value("${matching.strategy.experience.weight:0.3}") double weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public String getName() {
+        return "experience";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public double getMaxScore() {
+        return 0.9;
+    }
+
+    @Override
+    public double score(Input input) {
+        if (!input.hasExperience()) {
+            return 0.2; // Score bajo si no tiene experiencia registrada
+        }
+
+        // Años totales de experiencia (precalculados en el vector de features del candidato)
+        int totalYearsOfExperience = input.getExperienceYears();
+
+        // Evaluar experiencia según el tipo de trabajo
+        return switch (input.getJobType()) {
+            case INTERNSHIP -> totalYearsOfExperience >= 0 ? 0.9 : 0.5;
+            case FULL_TIME -> {
+                if (totalYearsOfExperience >= 5) yield 0.9;
+                else if (totalYearsOfExperience >= 2) yield 0.7;
+                else if (totalYearsOfExperience >= 1) yield 0.5;
+                else yield 0.3;
+            }
+            case PART_TIME, CONTRACT -> totalYearsOfExperience >= 1 ? 0.8 : 0.6;
+        };
+    }
+
+    @Override
+    public void explain(double score, StringBuilder explanation) {
+        if (score >= 0.8) {
+            explanation.append("- Experiencia muy adecuada para el puesto\n");
+        } else if (score >= 0.6) {
+            explanation.append("- Experiencia adecuada para el puesto\n");
+        } else {
+            explanation.append("- Experiencia limitada para el puesto\n");
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.FeedPage;
+import com.clipers.clipers.dto.FeedPostDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caché de las primeras páginas del feed global, que son iguales para todos los usuarios
+ * Guarda cada página ya serializada a JSON en un LRU acotado por bytes, así un acierto no toca la base de datos
+ * ni vuelve a serializar. Crear, editar o borrar un post la vacía tras el commit; los contadores de likes
+ * y comentarios pueden quedar desfasados como mucho el TTL de la entrada
+ * Una página calculada antes de una invalidación ya no se guarda (generación, como en JobRankingCache)
+ * Las páginas se guardan sin likes propios (likedByMe a false) junto con los ids de sus posts; los likes del
+ * usuario se consultan aparte y se añaden como likedPostIds sin volver a parsear la página
+ * Métricas: feed.cache.requests (tag result=hit|miss; la tasa de aciertos es hit / total),
+ * feed.cache.invalidations y los gauges feed.cache.entries y feed.cache.bytes
+ */
+@Component
+public class FeedCache {
+
+    private final ObjectMapper objectMapper;
+    private final int headPosts;
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Page> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long bytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    @Autowired
+    public FeedCache(ObjectMapper objectMapper,
+                     MeterRegistry meterRegistry,
+                     @Value("${feed.cache.head-posts:100}") int headPosts,
+                     @Value("${feed.cache.max-size:4MB}") DataSize maxSize,
+                     @Value("${feed.cache.ttl-ms:10000}") long ttlMillis) {
+        this.objectMapper = objectMapper;
+        this.headPosts = headPosts;
+        this.maxBytes = maxSize.toBytes();
+        this.ttlMillis = ttlMillis;
+
+        this.hits = Counter.builder("feed.cache.requests")
+                .description("Páginas de cabeza del feed pedidas a la caché")
+                .tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("feed.cache.requests")
+                .description("Páginas de cabeza del feed pedidas a la caché")
+                .tag("result", "miss").register(meterRegistry);
+        this.invalidations = Counter.builder("feed.cache.invalidations")
+                .description("Vaciados de la caché del feed por cambios en los posts")
+                .register(meterRegistry);
+        meterRegistry.gauge("feed.cache.entries", entries, Map::size);
+        meterRegistry.gauge("feed.cache.bytes", this, cache -> cache.bytes);
+    }
+
+    /**
+     * Página [offset, offset + size) del feed. Si cae dentro de la cabeza cacheada se sirve
+     * de la caché o se calcula con loader y se guarda; las páginas más profundas se serializan sin guardarse
+     */
+    public Page getOrLoad(String key, long offset, int size, Supplier<FeedPage> loader) {
+        if (offset + size > headPosts) {
+            return toPage(loader.get(), 0);
+        }
+
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Page page = entries.get(key);
+            if (page != null && page.expiresAt > now) {
+                hits.increment();
+                return page;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        Page page = toPage(loader.get(), now + ttlMillis);
+        put(key, loadGeneration, page);
+        return page;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        lock.lock();
+        try {
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+        invalidations.increment();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFeedChanged(PostService.FeedChangedEvent event) {
+        invalidate();
+    }
+
+    private void put(String key, long loadGeneration, Page page) {
+        if (page.json.length > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            // Un post confirmado mientras se calculaba la página la deja obsoleta
+            if (generation.get() != loadGeneration) {
+                return;
+            }
+            Page previous = entries.put(key, page);
+            bytes += page.json.length - (previous != null ? previous.json.length : 0);
+            // Desaloja las páginas menos usadas hasta volver al límite de bytes
+            Iterator<Map.Entry<String, Page>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().getValue().json.length;
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Page toPage(FeedPage feedPage, long expiresAt) {
+        List<String> postIds = new ArrayList<>(feedPage.getPosts().size());
+        for (FeedPostDTO post : feedPage.getPosts()) {
+            postIds.add(post.getId());
+        }
+        try {
+            return new Page(objectMapper.writeValueAsBytes(feedPage), postIds, expiresAt);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializando el feed: " + e.getMessage(), e);
+        }
+    }
+
+    // Página del feed ya serializada y los ids de sus posts, en el orden del JSON
+    public static class Page {
+        private final byte[] json;
+        private final List<String> postIds;
+        private final long expiresAt;
+
+        Page(byte[] json, List<String> postIds, long expiresAt) {
+            this.json = json;
+            this.postIds = postIds;
+            this.expiresAt = expiresAt;
+        }
+
+        public byte[] getJson() { return json; }
+        public List<String> getPostIds() { return postIds; }
+    }
+}
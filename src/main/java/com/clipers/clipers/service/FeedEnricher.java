@@ -0,0 +1,117 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.FeedPostDTO;
+import com.clipers.clipers.entity.Post;
+import com.clipers.clipers.repository.CommentRepository;
+import com.clipers.clipers.repository.PostLikeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Convierte una página de posts en FeedPostDTO con un número fijo de consultas, sea cual sea el tamaño
+ * de la página: una para los comentarios de todos los posts y otra para los likes del usuario actual
+ * Los autores llegan ya cargados con la propia página (JOIN FETCH en las consultas del feed)
+ */
+@Component
+public class FeedEnricher {
+
+    private final CommentRepository commentRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public FeedEnricher(CommentRepository commentRepository,
+                        PostLikeRepository postLikeRepository,
+                        ObjectMapper objectMapper) {
+        this.commentRepository = commentRepository;
+        this.postLikeRepository = postLikeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param viewerId usuario que pide el feed, o null para una página sin likes propios (la que se cachea)
+     */
+    public List<FeedPostDTO> enrich(List<Post> posts, String viewerId) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<String> postIds = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            postIds.add(post.getId());
+        }
+
+        Map<String, Long> commentCounts = new HashMap<>();
+        for (Object[] row : commentRepository.countByPostIds(postIds)) {
+            commentCounts.put((String) row[0], (Long) row[1]);
+        }
+        Set<String> liked = findLikedPostIds(viewerId, postIds);
+
+        List<FeedPostDTO> result = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            result.add(new FeedPostDTO(post, commentCounts.getOrDefault(post.getId(), 0L), liked.contains(post.getId())));
+        }
+        return result;
+    }
+
+    public Set<String> findLikedPostIds(String viewerId, Collection<String> postIds) {
+        if (viewerId == null || postIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(postLikeRepository.findLikedPostIds(viewerId, postIds));
+    }
+
+    /**
+     * Ids de postIds a los que viewerId dio like, en el orden de la página
+     */
+    public List<String> likedInOrder(String viewerId, List<String> postIds) {
+        Set<String> liked = findLikedPostIds(viewerId, postIds);
+        if (liked.isEmpty()) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(liked.size());
+        for (String postId : postIds) {
+            if (liked.contains(postId)) {
+                result.add(postId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Añade "likedPostIds" al final de una página ya serializada (FeedCache guarda las páginas sin likes propios)
+     * Solo copia bytes: la página cacheada no se vuelve a parsear ni a serializar
+     */
+    public byte[] appendLikedPostIds(byte[] pageJson, List<String> likedPostIds) {
+        if (likedPostIds.isEmpty()) {
+            return pageJson;
+        }
+        int end = pageJson.length - 1;
+        while (end >= 0 && pageJson[end] != '}') {
+            end--;
+        }
+        if (end < 0) {
+            throw new IllegalStateException("La página del feed no es un objeto JSON");
+        }
+        try {
+            byte[] field = (",\"likedPostIds\":" + objectMapper.writeValueAsString(likedPostIds) + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            byte[] result = Arrays.copyOf(pageJson, end + field.length);
+            System.arraycopy(field, 0, result, end, field.length);
+            return result;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error marcando likes en el feed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.clipers.clipers.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Traduce el texto que escribe el usuario a una expresión tsquery de PostgreSQL para las búsquedas
+ * a texto completo: cada palabra se busca como prefijo ("desarrolla" encuentra "desarrollador") y todas
+ * tienen que aparecer. Solo se conservan letras y dígitos, así la expresión nunca tiene errores de sintaxis
+ * Las búsquedas usan las configuraciones creadas por SchemaExtensionsInitializer:
+ * clipers_es (español, con stemming y sin tildes) y clipers_simple (nombres y emails, sin stemming)
+ */
+public final class FullTextQuery {
+
+    // Más palabras apenas cambian el resultado y encarecen la consulta
+    private static final int MAX_TERMS = 8;
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private FullTextQuery() {
+    }
+
+    /**
+     * Expresión para to_tsquery, o null si el texto no tiene ninguna palabra buscable
+     */
+    public static String toPrefixQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        Matcher matcher = TERM.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find() && terms.size() < MAX_TERMS) {
+            terms.add(matcher.group() + ":*");
+        }
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+}
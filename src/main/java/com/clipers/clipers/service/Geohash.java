@@ -0,0 +1,62 @@
+package com.clipers.clipers.service;
+
+/**
+ * Codificación geohash (base 32) de coordenadas. Dos puntos en la misma celda comparten prefijo,
+ * así que las celdas sirven de cubetas para buscar lugares por radio
+ */
+public final class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private Geohash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int index = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    index = index * 2 + 1;
+                    minLon = mid;
+                } else {
+                    index = index * 2;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    index = index * 2 + 1;
+                    minLat = mid;
+                } else {
+                    index = index * 2;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32[index]);
+                bit = 0;
+                index = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    // Alto de una celda en grados de latitud
+    public static double cellHeight(int precision) {
+        int latBits = (precision * 5) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    // Ancho de una celda en grados de longitud
+    public static double cellWidth(int precision) {
+        int lonBits = (precision * 5 + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+}
@@ -0,0 +1,216 @@
+package com.clipers.clipers.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Escritura masiva de JobMatch con lotes JDBC
+ * Cada fila es un upsert sobre (job_id, user_id) que además reemplaza sus skills coincidentes en la misma
+ * sentencia, así que un lote completo es un único viaje a la base de datos en lugar de un INSERT por match
+ * y otro por skill. Usa la conexión de la transacción en curso, igual que los repositorios JPA
+ */
+@Component
+public class JobMatchWriter {
+
+    private static final String UPSERT_SQL =
+            "WITH m AS (" +
+            "  INSERT INTO job_matches (id, job_id, user_id, score, explanation, created_at) VALUES (?, ?, ?, ?, ?, ?) " +
+            "  ON CONFLICT (job_id, user_id) DO UPDATE SET score = EXCLUDED.score, explanation = EXCLUDED.explanation " +
+            "  RETURNING id" +
+            "), d AS (" +
+            "  DELETE FROM job_match_skills WHERE job_match_id IN (SELECT id FROM m)" +
+            ") " +
+            "INSERT INTO job_match_skills (job_match_id, matched_skill) SELECT m.id, s FROM m, unnest(?::text[]) AS s";
+
+    private static final String DELETE_PAIR_SQL =
+            "WITH s AS (" +
+            "  DELETE FROM job_match_skills WHERE job_match_id IN (SELECT id FROM job_matches WHERE job_id = ? AND user_id = ?)" +
+            ") " +
+            "DELETE FROM job_matches WHERE job_id = ? AND user_id = ?";
+
+    private static final String DELETE_SKILLS_BY_USER_SQL =
+            "DELETE FROM job_match_skills WHERE job_match_id IN (SELECT id FROM job_matches WHERE user_id = ?)";
+
+    private static final String DELETE_MATCHES_BY_USER_SQL = "DELETE FROM job_matches WHERE user_id = ?";
+
+    private static final String DELETE_SKILLS_BY_JOB_SQL =
+            "DELETE FROM job_match_skills WHERE job_match_id IN (SELECT id FROM job_matches WHERE job_id = ?)";
+
+    private static final String DELETE_MATCHES_BY_JOB_SQL = "DELETE FROM job_matches WHERE job_id = ?";
+
+    // Matches de usuarios que ya no tienen perfil ATS (p. ej. tras borrar todos los perfiles)
+    private static final String WITHOUT_PROFILE =
+            "SELECT id FROM job_matches m WHERE NOT EXISTS (SELECT 1 FROM ats_profiles a WHERE a.user_id = m.user_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${matching.write.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    public JobMatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Abre un lote de escritura. Debe usarse dentro de una transacción y cerrarse con flush()
+     */
+    public Batch open() {
+        return new Batch();
+    }
+
+    /**
+     * Borra todos los matches de un candidato (y sus skills) con dos sentencias, sin cargar entidades
+     */
+    public int deleteByUserId(String userId) {
+        jdbcTemplate.update(DELETE_SKILLS_BY_USER_SQL, userId);
+        return jdbcTemplate.update(DELETE_MATCHES_BY_USER_SQL, userId);
+    }
+
+    // Todos los matches de una vacante (y sus skills), sin cargar entidades
+    public int deleteByJobId(String jobId) {
+        jdbcTemplate.update(DELETE_SKILLS_BY_JOB_SQL, jobId);
+        return jdbcTemplate.update(DELETE_MATCHES_BY_JOB_SQL, jobId);
+    }
+
+    /**
+     * Borra los matches de todos los usuarios sin perfil ATS y devuelve las vacantes en las que estaban
+     */
+    public Set<String> deleteWithoutProfile() {
+        Set<String> jobIds = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT job_id FROM job_matches WHERE id IN (" + WITHOUT_PROFILE + ")", String.class));
+        if (!jobIds.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM job_match_skills WHERE job_match_id IN (" + WITHOUT_PROFILE + ")");
+            jdbcTemplate.update("DELETE FROM job_matches WHERE id IN (" + WITHOUT_PROFILE + ")");
+        }
+        return jobIds;
+    }
+
+    // Scores actuales de una vacante (userId -> score), para detectar qué matches son nuevos
+    public Map<String, Double> findScoresByJob(String jobId) {
+        Map<String, Double> scores = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, score FROM job_matches WHERE job_id = ?",
+                rs -> { scores.put(rs.getString(1), rs.getDouble(2)); }, jobId);
+        return scores;
+    }
+
+    // Scores actuales de un candidato (jobId -> score)
+    public Map<String, Double> findScoresByUser(String userId) {
+        Map<String, Double> scores = new HashMap<>();
+        jdbcTemplate.query("SELECT job_id, score FROM job_matches WHERE user_id = ?",
+                rs -> { scores.put(rs.getString(1), rs.getDouble(2)); }, userId);
+        return scores;
+    }
+
+    private void write(List<PendingMatch> matches) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingMatch match = matches.get(i);
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, match.jobId);
+                ps.setString(3, match.userId);
+                ps.setDouble(4, match.score);
+                ps.setString(5, match.explanation);
+                ps.setTimestamp(6, now);
+                ps.setArray(7, ps.getConnection().createArrayOf("text", match.matchedSkills.toArray()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return matches.size();
+            }
+        });
+    }
+
+    private void delete(List<String[]> pairs) {
+        jdbcTemplate.batchUpdate(DELETE_PAIR_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                String[] pair = pairs.get(i);
+                ps.setString(1, pair[0]);
+                ps.setString(2, pair[1]);
+                ps.setString(3, pair[0]);
+                ps.setString(4, pair[1]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return pairs.size();
+            }
+        });
+    }
+
+    // Lote en memoria de upserts y borrados de pares (vacante, candidato): se vuelca al llegar a matching.write.batch-size
+    public class Batch {
+        private final List<PendingMatch> pending = new ArrayList<>();
+        private final List<String[]> removals = new ArrayList<>();
+        private int written;
+
+        private Batch() {
+        }
+
+        public void add(String jobId, String userId, double score, String explanation, List<String> matchedSkills) {
+            pending.add(new PendingMatch(jobId, userId, score, explanation,
+                    matchedSkills != null ? matchedSkills : List.of()));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public void remove(String jobId, String userId) {
+            removals.add(new String[] { jobId, userId });
+            if (removals.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public void flush() {
+            if (!pending.isEmpty()) {
+                write(pending);
+                written += pending.size();
+                pending.clear();
+            }
+            if (!removals.isEmpty()) {
+                delete(removals);
+                removals.clear();
+            }
+        }
+
+        public int getWritten() {
+            return written;
+        }
+    }
+
+    private static class PendingMatch {
+        private final String jobId;
+        private final String userId;
+        private final double score;
+        private final String explanation;
+        private final List<String> matchedSkills;
+
+        private PendingMatch(String jobId, String userId, double score, String explanation, List<String> matchedSkills) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.score = score;
+            this.explanation = explanation;
+            this.matchedSkills = matchedSkills;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.clipers.clipers.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta el matching automático en el pool acotado "matchingExecutor"
+ * Las tareas se envían después del commit, hay como mucho una por vacante y una por candidato
+ * (una nueva cancela la anterior) y actualizar o desactivar la vacante cancela la que esté en curso
+ * Los cambios de perfil de un candidato solo recalculan sus pares con las vacantes activas
+ * Durante un rematch masivo (pause/resume) el matching incremental se aparta: las tareas en curso se cancelan,
+ * las nuevas se aplazan (la última por clave) y todas se ejecutan al terminar el rematch, sobre datos frescos
+ * Si la cola del pool está llena la tarea también se aplaza y drainDeferred la reenvía cuando hay sitio:
+ * una ráfaga de cambios se queda en una tarea pendiente por clave en lugar de crecer con cada cambio
+ */
+@Component
+public class JobMatchingExecutor {
+
+    private final JobService jobService;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private static final String CANDIDATE_KEY_PREFIX = "candidate:";
+    private static final String WITHOUT_PROFILE_KEY = "candidates:without-profile";
+
+    private final Map<String, MatchingTask> tasks = new ConcurrentHashMap<>();
+    private final Map<String, MatchingTask> deferred = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private volatile boolean paused;
+    private final Counter cancelled;
+    private final Counter rejected;
+
+    @Autowired
+    public JobMatchingExecutor(JobService jobService,
+                               @Qualifier("matchingExecutor") ThreadPoolTaskExecutor executor,
+                               MeterRegistry meterRegistry) {
+        this.jobService = jobService;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.cancelled = Counter.builder("matching.jobs.cancelled")
+                .description("Matchings cancelados por actualización o desactivación de la vacante")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("matching.jobs.rejected")
+                .description("Matchings aplazados porque la cola del pool estaba llena")
+                .register(meterRegistry);
+
+        meterRegistry.gauge("matching.queue.depth", executor,
+                pool -> pool.getThreadPoolExecutor().getQueue().size());
+        meterRegistry.gauge("matching.running", running);
+        meterRegistry.gauge("matching.deferred", deferred, Map::size);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMatchingRequested(JobService.JobMatchingRequestedEvent event) {
+        submit(event.getJobId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCandidateProfileChanged(ATSProfileService.CandidateProfileChangedEvent event) {
+        if (event.getUserId() != null) {
+            submitCandidate(event.getUserId());
+            return;
+        }
+        // Cambio masivo: no se sabe qué candidatos cambiaron, pero los que perdieron el perfil no pueden
+        // conservar matches ni seguir en los rankings en caché. Va por el pool como una tarea más, así
+        // también espera a que termine un rematch masivo en curso
+        enqueue(new MatchingTask(WITHOUT_PROFILE_KEY, "candidate", jobService::removeMatchesWithoutProfile));
+    }
+
+    @EventListener
+    public void onMatchingCancelled(JobService.JobMatchingCancelledEvent event) {
+        cancel(event.getJobId());
+    }
+
+    public void submit(String jobId) {
+        enqueue(new MatchingTask(jobId, "job", () -> jobService.runAutomaticMatching(jobId)));
+    }
+
+    public void submitCandidate(String userId) {
+        enqueue(new MatchingTask(CANDIDATE_KEY_PREFIX + userId, "candidate",
+                () -> jobService.runCandidateMatching(userId)));
+    }
+
+    // false si la tarea queda aplazada (pausa o cola llena)
+    private boolean enqueue(MatchingTask task) {
+        if (paused) {
+            deferred.put(task.key, task);
+            return false;
+        }
+        MatchingTask previous = tasks.put(task.key, task);
+        if (previous != null) {
+            cancelTask(previous);
+        }
+        try {
+            executor.execute(task);
+            // Una tarea aplazada antes para la misma clave haría el mismo trabajo
+            deferred.remove(task.key);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // La tarea no llegó a la cola y sigue sin ejecutar: se reenvía tal cual desde drainDeferred
+            tasks.remove(task.key, task);
+            deferred.putIfAbsent(task.key, task);
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Reenvía al pool lo aplazado por cola llena mientras haya sitio; lo que no cabe espera a la siguiente pasada
+     */
+    @Scheduled(fixedDelayString = "${matching.deferred.drain-interval-ms:1000}")
+    public void drainDeferred() {
+        for (String key : deferred.keySet()) {
+            if (paused || executor.getThreadPoolExecutor().getQueue().remainingCapacity() == 0) {
+                return;
+            }
+            MatchingTask task = deferred.remove(key);
+            if (task != null && !enqueue(task)) {
+                return;
+            }
+        }
+    }
+
+    public boolean cancel(String jobId) {
+        deferred.remove(jobId);
+        MatchingTask task = tasks.remove(jobId);
+        if (task != null && cancelTask(task)) {
+            System.out.println("Matching cancelado para job " + jobId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Aparta el matching incremental antes de un rematch masivo: cancela las tareas en cola o en curso
+     * (se vuelven a ejecutar en resume) y espera a que las que estaban corriendo terminen su rollback
+     * Así ninguna escritura incremental se cruza con las del rematch ni lo pisa con datos anteriores a él
+     * @throws IllegalStateException si alguna tarea no termina en el plazo; el matching queda reanudado
+     */
+    public void pause(long timeout, TimeUnit unit) {
+        paused = true;
+        for (MatchingTask task : tasks.values()) {
+            if (tasks.remove(task.key, task) && cancelTask(task)) {
+                deferred.putIfAbsent(task.key, task.retry());
+            }
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (running.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                resume();
+                throw new IllegalStateException("El matching incremental no se detuvo a tiempo");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                resume();
+                throw new IllegalStateException("Interrumpido esperando al matching incremental");
+            }
+        }
+    }
+
+    /**
+     * Reanuda el matching incremental y encola lo aplazado durante la pausa
+     */
+    public void resume() {
+        paused = false;
+        for (String key : deferred.keySet()) {
+            MatchingTask task = deferred.remove(key);
+            if (task != null) {
+                enqueue(task);
+            }
+        }
+    }
+
+    private boolean cancelTask(MatchingTask task) {
+        if (!task.cancel(true)) {
+            return false;
+        }
+        // Si aún estaba en cola se retira para no ocupar capacidad
+        executor.getThreadPoolExecutor().remove(task);
+        cancelled.increment();
+        return true;
+    }
+
+    public int getPendingCount() {
+        return tasks.size() + deferred.size();
+    }
+
+    private class MatchingTask extends FutureTask<Void> {
+        private final String key;
+        private final String scope;
+        private final Runnable matching;
+        private final long submittedAt = System.nanoTime();
+        private volatile String outcome = "completed";
+
+        MatchingTask(String key, String scope, Runnable matching) {
+            super(matching, null);
+            this.key = key;
+            this.scope = scope;
+            this.matching = matching;
+        }
+
+        // Una FutureTask no se puede volver a ejecutar: la tarea aplazada es una copia
+        MatchingTask retry() {
+            return new MatchingTask(key, scope, matching);
+        }
+
+        @Override
+        public void run() {
+            // Se cuenta antes de mirar la pausa: pause() o ve esta tarea corriendo o ella ve la pausa
+            running.incrementAndGet();
+            try {
+                if (paused) {
+                    tasks.remove(key, this);
+                    cancel(false);
+                    deferred.putIfAbsent(key, retry());
+                    return;
+                }
+                super.run();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            outcome = "failed";
+            System.err.println("Error en matching automático para " + key + ": " + t.getMessage());
+            super.setException(t);
+        }
+
+        @Override
+        protected void done() {
+            tasks.remove(key, this);
+            // Latencia desde el envío (incluye la espera en cola) hasta terminar
+            Timer.builder("matching.job.duration")
+                    .description("Tiempo desde que se encola un matching (vacante o candidato) hasta que termina")
+                    .tag("scope", scope)
+                    .tag("outcome", isCancelled() ? "cancelled" : outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.clipers.clipers.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Top-K de candidatos por vacante calculado durante el matching completo, servido sin ir a la base de datos
+ * Orden del ranking: score descendente y, a igual score, userId ascendente (el mismo que usa el cursor)
+ * Un cálculo toma al empezar la generación actual (un reloj global) y cada invalidación de una vacante
+ * queda sellada con un nuevo valor del reloj: un top-K calculado antes del último cambio de su vacante ya no
+ * se guarda. Solo se recuerdan las últimas invalidaciones (4 × cache-max-jobs); de las olvidadas se conserva
+ * el sello más alto, así que un cálculo que empezó antes de él se descarta aunque su vacante no cambiara.
+ * Es conservador: como mucho cuesta una lectura de la base de datos, y la memoria no crece con las vacantes
+ */
+@Component
+public class JobRankingCache {
+
+    // Mejor primero: score descendente, userId ascendente
+    public static final Comparator<RankedMatch> RANKING_ORDER = Comparator
+            .comparingDouble(RankedMatch::getScore).reversed()
+            .thenComparing(RankedMatch::getUserId);
+
+    private final int topK;
+    private final int maxJobs;
+    private final LinkedHashMap<String, Ranking> rankings = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong clock = new AtomicLong();
+    // Último sello por vacante, en orden de invalidación; protegido por lock
+    private final LinkedHashMap<String, Long> invalidations = new LinkedHashMap<>();
+    private long forgottenUpTo;
+
+    @Autowired
+    public JobRankingCache(@Value("${matching.ranking.top-k:50}") int topK,
+                           @Value("${matching.ranking.cache-max-jobs:1000}") int maxJobs,
+                           MeterRegistry meterRegistry) {
+        this.topK = topK;
+        this.maxJobs = maxJobs;
+        meterRegistry.gauge("matching.ranking.cache.jobs", rankings, Map::size);
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public long generation() {
+        return clock.get();
+    }
+
+    public Collector newCollector() {
+        return new Collector(topK);
+    }
+
+    public Ranking get(String jobId) {
+        lock.lock();
+        try {
+            return rankings.get(jobId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(String jobId) {
+        lock.lock();
+        try {
+            rankings.remove(jobId);
+            // Se reinserta para que la vacante pase al final del orden de invalidación
+            invalidations.remove(jobId);
+            invalidations.put(jobId, clock.incrementAndGet());
+            if (invalidations.size() > maxJobs * 4) {
+                Iterator<Long> eldest = invalidations.values().iterator();
+                forgottenUpTo = Math.max(forgottenUpTo, eldest.next());
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Con lock: la vacante se invalidó después de la generación dada (o no se puede descartar)
+    private boolean invalidatedSince(String jobId, long generation) {
+        Long stamp = invalidations.get(jobId);
+        return (stamp != null ? stamp : forgottenUpTo) > generation;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRankingComputed(JobService.JobRankingComputedEvent event) {
+        String jobId = event.getJobId();
+        lock.lock();
+        try {
+            // Un matching incremental confirmado después de empezar este cálculo lo deja obsoleto
+            if (invalidatedSince(jobId, event.getGeneration())) {
+                return;
+            }
+            rankings.put(jobId, event.getRanking());
+            if (rankings.size() > maxJobs) {
+                rankings.remove(rankings.keySet().iterator().next());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRankingsChanged(JobService.JobRankingsChangedEvent event) {
+        for (String jobId : event.getJobIds()) {
+            evict(jobId);
+        }
+    }
+
+    // Ranking guardado de una vacante: los K mejores y si son todos los matches que existen
+    public static class Ranking {
+        private final List<RankedMatch> matches;
+        private final boolean complete;
+
+        Ranking(List<RankedMatch> matches, boolean complete) {
+            this.matches = matches;
+            this.complete = complete;
+        }
+
+        public List<RankedMatch> getMatches() { return matches; }
+        public boolean isComplete() { return complete; }
+    }
+
+    /**
+     * Min-heap acotado a K: la raíz es el peor de los K mejores, así que cada oferta cuesta O(log K)
+     * y la memoria no depende del número de candidatos
+     */
+    public static class Collector {
+        private final int capacity;
+        private final PriorityQueue<RankedMatch> heap;
+        private int offered;
+
+        Collector(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PriorityQueue<>(capacity + 1, RANKING_ORDER.reversed());
+        }
+
+        public void offer(RankedMatch match) {
+            offered++;
+            if (heap.size() < capacity) {
+                heap.add(match);
+            } else if (RANKING_ORDER.compare(match, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+
+        public Ranking toRanking() {
+            List<RankedMatch> sorted = new ArrayList<>(heap);
+            sorted.sort(RANKING_ORDER);
+            return new Ranking(List.copyOf(sorted), offered <= capacity);
+        }
+    }
+
+    public static class RankedMatch {
+        private final String userId;
+        private final double score;
+        private final String explanation;
+        private final List<String> matchedSkills;
+
+        public RankedMatch(String userId, double score, String explanation, List<String> matchedSkills) {
+            this.userId = userId;
+            this.score = score;
+            this.explanation = explanation;
+            this.matchedSkills = matchedSkills;
+        }
+
+        public String getUserId() { return userId; }
+        public double getScore() { return score; }
+        public String getExplanation() { return explanation; }
+        public List<String> getMatchedSkills() { return matchedSkills; }
+    }
+}
@@ -1,17 +1,22 @@
 package com.clipers.clipers.service;
 
+import com.clipers.clipers.dto.CandidateFeatureSnapshot;
+import com.clipers.clipers.dto.CandidateRankingDTO;
+import com.clipers.clipers.dto.JobMatchProfile;
 import com.clipers.clipers.entity.*;
 import com.clipers.clipers.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.time.Period;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
 
 /**
  * Servicio que implementa Strategy Pattern implícitamente
@@ -26,18 +31,45 @@ public class JobService {
     private final UserRepository userRepository;
     private final JobMatchRepository jobMatchRepository;
     private final NotificationService notificationService;
+    private final CandidateScanner candidateScanner;
+    private final ActiveJobScanner activeJobScanner;
+    private final JobMatchWriter jobMatchWriter;
+    private final JobRankingCache jobRankingCache;
+    private final MatchScorer matchScorer;
+    private final PlaceIndex placeIndex;
+    private final SkillDictionary skillDictionary;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${places.filter.default-radius-km:25}")
+    private double defaultRadiusKm;
 
     @Autowired
     public JobService(JobRepository jobRepository,
                      CompanyRepository companyRepository,
                      UserRepository userRepository,
                      JobMatchRepository jobMatchRepository,
-                     NotificationService notificationService) {
+                     NotificationService notificationService,
+                     CandidateScanner candidateScanner,
+                     ActiveJobScanner activeJobScanner,
+                     JobMatchWriter jobMatchWriter,
+                     JobRankingCache jobRankingCache,
+                     MatchScorer matchScorer,
+                     PlaceIndex placeIndex,
+                     SkillDictionary skillDictionary,
+                     ApplicationEventPublisher eventPublisher) {
         this.jobRepository = jobRepository;
         this.companyRepository = companyRepository;
         this.userRepository = userRepository;
         this.jobMatchRepository = jobMatchRepository;
         this.notificationService = notificationService;
+        this.candidateScanner = candidateScanner;
+        this.activeJobScanner = activeJobScanner;
+        this.jobMatchWriter = jobMatchWriter;
+        this.jobRankingCache = jobRankingCache;
+        this.matchScorer = matchScorer;
+        this.placeIndex = placeIndex;
+        this.skillDictionary = skillDictionary;
+        this.eventPublisher = eventPublisher;
     }
 
     public Job createJob(String companyUserId, String title, String description, 
@@ -48,10 +80,12 @@ public class JobService {
                 .orElseThrow(() -> new RuntimeException("Empresa no encontrada"));
 
         Job job = new Job(title, description, location, type, company);
+        job.setPlaceId(placeIndex.resolve(location));
         job.setRequirements(requirements);
         job.setSkills(skills);
         job.setSalaryMin(salaryMin);
         job.setSalaryMax(salaryMax);
+        registerSkills(skills);
 
         job = jobRepository.save(job);
 
@@ -62,169 +96,183 @@ public class JobService {
     }
 
     /**
-     * Strategy Pattern implementado implícitamente
-     * Aplica diferentes estrategias de matching según el contexto
+     * El matching se encola y JobMatchingExecutor lo ejecuta tras el commit de la vacante
      */
     private void performAutomaticMatching(Job job) {
-        // En producción, esto se ejecutaría de forma asíncrona
-        new Thread(() -> {
-            try {
-                List<User> candidates = userRepository.findCandidatesWithATSProfile();
-                
-                for (User candidate : candidates) {
-                    // Aplicar múltiples estrategias de matching
-                    double overallScore = calculateOverallMatchScore(candidate, job);
-                    
-                    // Solo crear match si el score es significativo
-                    if (overallScore >= 0.3) {
-                        String explanation = generateMatchExplanation(candidate, job, overallScore);
-                        List<String> matchedSkills = findMatchedSkills(candidate, job);
-                        
-                        JobMatch jobMatch = new JobMatch(job, candidate, overallScore, explanation);
-                        jobMatch.setMatchedSkills(matchedSkills);
-                        jobMatchRepository.save(jobMatch);
-                        
-                        // Notificar al candidato si el match es bueno
-                        if (overallScore >= 0.6) {
-                            notificationService.notifyJobMatched(candidate.getId(), job.getId(), overallScore);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error en matching automático para job " + job.getId() + ": " + e.getMessage());
-            }
-        }).start();
+        eventPublisher.publishEvent(new JobMatchingRequestedEvent(job.getId()));
     }
 
-    // Strategy Pattern - combina múltiples estrategias
-    private double calculateOverallMatchScore(User candidate, Job job) {
-        double skillScore = calculateSkillMatchScore(candidate, job);
-        double experienceScore = calculateExperienceMatchScore(candidate, job);
-        double locationScore = calculateLocationMatchScore(candidate, job);
-        
-        // Pesos para cada estrategia
-        double skillWeight = 0.5;
-        double experienceWeight = 0.3;
-        double locationWeight = 0.2;
-        
-        return (skillScore * skillWeight) + 
-               (experienceScore * experienceWeight) + 
-               (locationScore * locationWeight);
-    }
-
-    // Estrategia basada en habilidades
-    private double calculateSkillMatchScore(User candidate, Job job) {
-        if (candidate.getAtsProfile() == null || candidate.getAtsProfile().getSkills().isEmpty()) {
-            return 0.0;
+    /**
+     * Strategy Pattern: las estrategias MatchStrategy que combina MatchScorer
+     * Aplica diferentes estrategias de matching según el contexto. Corre en el pool de matching
+     * en su propia transacción; si la tarea se cancela (interrupción) se revierte por completo
+     * Se puntúa la vacante contra todos los candidatos: se actualizan los matches que siguen siendo
+     * significativos y se borran solo los que dejan de serlo
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void runAutomaticMatching(String jobId) {
+        // Skills de la vacante resueltas a ids del diccionario (con sinónimos), igual que en el matching
+        // por candidato y en el rematch masivo: un mismo par recibe el mismo score sea cual sea el camino
+        Optional<JobMatchProfile> profile = activeJobScanner.load(jobId);
+        if (profile.isEmpty()) {
+            return;
         }
+        JobMatchProfile job = profile.get();
+        int[] jobSkillIds = job.getDistinctSkillIds();
+
+        long rankingGeneration = jobRankingCache.generation();
+        JobRankingCache.Collector ranking = jobRankingCache.newCollector();
+        Map<String, Double> previousScores = jobMatchWriter.findScoresByJob(jobId);
+        JobMatchWriter.Batch matches = jobMatchWriter.open();
+        MatchStrategy.Input input = new MatchStrategy.Input();
+        MatchScorer.MatchScore score = matchScorer.newScore();
+        MatchScorer.Stats stats = matchScorer.newStats();
+        candidateScanner.scan(candidates -> {
+            for (int i = 0; i < candidates.size(); i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Matching cancelado para job " + jobId);
+                }
 
-        Set<String> candidateSkills = candidate.getAtsProfile().getSkills()
-                .stream()
-                .map(skill -> skill.getName().toLowerCase())
-                .collect(Collectors.toSet());
-
-        Set<String> jobSkills = job.getSkills()
-                .stream()
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-
-        if (jobSkills.isEmpty()) {
-            return 0.5; // Score neutro si el trabajo no especifica habilidades
+                String userId = candidates.getUserId(i);
+                int[] candidateSkillIds = candidates.getSkillIds(i);
+                input.set(candidates.hasSkills(i), SkillDictionary.intersectionSize(jobSkillIds, candidateSkillIds),
+                        job.getDistinctSkillCount(), candidates.hasExperience(i), candidates.getExperienceYears(i),
+                        job.getType(), job.getLocation(), job.getPlaceId(), candidates.getPlaceId(i));
+                matchScorer.score(input, score, stats);
+                // Las skills coincidentes solo hacen falta si el par se guarda
+                List<String> matchedSkills = score.isPruned() || score.getOverallScore() < MatchScorer.MIN_MATCH_SCORE
+                        ? List.of() : job.getMatchedSkills(candidateSkillIds);
+                JobRankingCache.RankedMatch match = applyMatch(matches, jobId, userId, score,
+                        matchedSkills, previousScores.remove(userId));
+                if (match != null) {
+                    ranking.offer(match);
+                }
+            }
+        });
+        matchScorer.publish(stats);
+        // Candidatos que ya no tienen perfil ATS
+        for (String userId : previousScores.keySet()) {
+            matches.remove(jobId, userId);
         }
-
-        // Calcular intersección
-        Set<String> commonSkills = new HashSet<>(candidateSkills);
-        commonSkills.retainAll(jobSkills);
-
-        return (double) commonSkills.size() / jobSkills.size();
+        matches.flush();
+        eventPublisher.publishEvent(new JobRankingComputedEvent(jobId, rankingGeneration, ranking.toRanking()));
     }
 
-    // Estrategia basada en experiencia
-    private double calculateExperienceMatchScore(User candidate, Job job) {
-        if (candidate.getAtsProfile() == null || candidate.getAtsProfile().getExperience().isEmpty()) {
-            return 0.2; // Score bajo si no tiene experiencia registrada
+    /**
+     * Matching incremental de un candidato cuyo perfil cambió: solo se puntúan sus pares con las
+     * vacantes activas, en lugar de recalcular todas las vacantes
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void runCandidateMatching(String userId) {
+        Optional<CandidateFeatureSnapshot> features = candidateScanner.load(userId);
+        if (features.isEmpty()) {
+            // Sin perfil ATS no puede haber matches: se borran y se invalidan los rankings en los que aparecía
+            Set<String> affectedJobIds = new HashSet<>(jobMatchWriter.findScoresByUser(userId).keySet());
+            jobMatchWriter.deleteByUserId(userId);
+            eventPublisher.publishEvent(new JobRankingsChangedEvent(affectedJobIds));
+            return;
         }
+        CandidateFeatureSnapshot candidate = features.get();
+        int[] candidateSkillIds = candidate.getSkillIds(0);
+
+        Map<String, Double> previousScores = jobMatchWriter.findScoresByUser(userId);
+        Set<String> changedJobIds = new HashSet<>();
+        JobMatchWriter.Batch matches = jobMatchWriter.open();
+        MatchStrategy.Input input = new MatchStrategy.Input();
+        MatchScorer.MatchScore score = matchScorer.newScore();
+        MatchScorer.Stats stats = matchScorer.newStats();
+        activeJobScanner.scan(jobs -> {
+            for (JobMatchProfile job : jobs) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Matching cancelado para candidato " + userId);
+                }
 
-        // Calcular años totales de experiencia
-        int totalYearsOfExperience = candidate.getAtsProfile().getExperience()
-                .stream()
-                .mapToInt(exp -> {
-                    LocalDate startDate = exp.getStartDate();
-                    LocalDate endDate = exp.getEndDate() != null ? exp.getEndDate() : LocalDate.now();
-                    return Period.between(startDate, endDate).getYears();
-                })
-                .sum();
-
-        // Evaluar experiencia según el tipo de trabajo
-        return switch (job.getType()) {
-            case INTERNSHIP -> totalYearsOfExperience >= 0 ? 0.9 : 0.5;
-            case FULL_TIME -> {
-                if (totalYearsOfExperience >= 5) yield 0.9;
-                else if (totalYearsOfExperience >= 2) yield 0.7;
-                else if (totalYearsOfExperience >= 1) yield 0.5;
-                else yield 0.3;
+                // Solapamiento por ids ordenados: un merge de dos arrays, sin normalizar cadenas por par
+                input.set(candidate.hasSkills(0),
+                        SkillDictionary.intersectionSize(job.getDistinctSkillIds(), candidateSkillIds),
+                        job.getDistinctSkillCount(), candidate.hasExperience(0), candidate.getExperienceYears(0),
+                        job.getType(), job.getLocation(), job.getPlaceId(), candidate.getPlaceId(0));
+                matchScorer.score(input, score, stats);
+                // Las skills coincidentes solo hacen falta si el par se guarda
+                List<String> matchedSkills = score.isPruned() || score.getOverallScore() < MatchScorer.MIN_MATCH_SCORE
+                        ? List.of() : job.getMatchedSkills(candidateSkillIds);
+                Double previousScore = previousScores.get(job.getJobId());
+                JobRankingCache.RankedMatch match = applyMatch(matches, job.getJobId(), userId, score,
+                        matchedSkills, previousScore);
+                if (match != null ? !Double.valueOf(match.getScore()).equals(previousScore) : previousScore != null) {
+                    changedJobIds.add(job.getJobId());
+                }
             }
-            case PART_TIME, CONTRACT -> totalYearsOfExperience >= 1 ? 0.8 : 0.6;
-        };
+        });
+        matchScorer.publish(stats);
+        matches.flush();
+        // Los rankings en caché de las vacantes afectadas se invalidan tras el commit
+        eventPublisher.publishEvent(new JobRankingsChangedEvent(changedJobIds));
     }
 
-    // Estrategia basada en ubicación
-    private double calculateLocationMatchScore(User candidate, Job job) {
-        // Estrategia simple - en producción sería más sofisticada
-        if (job.getLocation() == null || job.getLocation().toLowerCase().contains("remoto")) {
-            return 1.0; // Trabajo remoto siempre coincide
-        }
-        
-        // Por simplicidad, asumimos coincidencia perfecta o nula
-        // En producción se usaría geolocalización
-        return 0.7; // Score por defecto para ubicación
+    /**
+     * Cambio masivo de perfiles (CandidateProfileChangedEvent sin userId, p. ej. al borrar todos los perfiles ATS):
+     * se borran los matches de los candidatos que se quedaron sin perfil y se invalidan los rankings afectados
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void removeMatchesWithoutProfile() {
+        Set<String> affectedJobIds = jobMatchWriter.deleteWithoutProfile();
+        eventPublisher.publishEvent(new JobRankingsChangedEvent(affectedJobIds));
+        System.out.println("Matches sin perfil ATS eliminados en " + affectedJobIds.size() + " vacantes");
     }
 
-    private String generateMatchExplanation(User candidate, Job job, double overallScore) {
-        StringBuilder explanation = new StringBuilder();
-        explanation.append("Análisis de compatibilidad:\n");
-        
-        double skillScore = calculateSkillMatchScore(candidate, job);
-        double experienceScore = calculateExperienceMatchScore(candidate, job);
-        
-        // Explicación de skills
-        if (skillScore >= 0.8) {
-            explanation.append("- Excelente coincidencia de habilidades\n");
-        } else if (skillScore >= 0.6) {
-            explanation.append("- Buena coincidencia de habilidades\n");
-        } else if (skillScore >= 0.3) {
-            explanation.append("- Coincidencia parcial de habilidades\n");
-        } else {
-            explanation.append("- Pocas habilidades coincidentes\n");
+    /**
+     * Guarda los pares ya puntuados de una vacante (rematch masivo): mismas reglas que el matching por vacante,
+     * pero sin volver a puntuar. Los matches previos que no aparecen en la lista se borran
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int storeJobMatches(String jobId, List<MatchScorer.ScoredPair> pairs) {
+        Job job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || !Boolean.TRUE.equals(job.getIsActive())) {
+            // Desactivada o borrada durante el rematch
+            return 0;
         }
-        
-        // Explicación de experiencia
-        if (experienceScore >= 0.8) {
-            explanation.append("- Experiencia muy adecuada para el puesto\n");
-        } else if (experienceScore >= 0.6) {
-            explanation.append("- Experiencia adecuada para el puesto\n");
-        } else {
-            explanation.append("- Experiencia limitada para el puesto\n");
+
+        long rankingGeneration = jobRankingCache.generation();
+        JobRankingCache.Collector ranking = jobRankingCache.newCollector();
+        Map<String, Double> previousScores = jobMatchWriter.findScoresByJob(jobId);
+        JobMatchWriter.Batch matches = jobMatchWriter.open();
+        for (MatchScorer.ScoredPair pair : pairs) {
+            JobRankingCache.RankedMatch match = applyMatch(matches, jobId, pair.getUserId(), pair.getScore(),
+                    pair.getMatchedSkills(), previousScores.remove(pair.getUserId()));
+            if (match != null) {
+                ranking.offer(match);
+            }
         }
-        
-        explanation.append(String.format("Score general: %.2f", overallScore));
-        return explanation.toString();
+        for (String userId : previousScores.keySet()) {
+            matches.remove(jobId, userId);
+        }
+        matches.flush();
+        eventPublisher.publishEvent(new JobRankingComputedEvent(jobId, rankingGeneration, ranking.toRanking()));
+        return matches.getWritten();
     }
 
-    private List<String> findMatchedSkills(User candidate, Job job) {
-        if (candidate.getAtsProfile() == null) {
-            return new ArrayList<>();
+    // Puntúa un par (vacante, candidato) y decide si el match se guarda, se actualiza o se borra
+    private JobRankingCache.RankedMatch applyMatch(JobMatchWriter.Batch matches, String jobId, String userId,
+                            MatchScorer.MatchScore score, List<String> matchedSkills, Double previousScore) {
+        double overallScore = score.getOverallScore();
+
+        // Solo guardar el match si el score es significativo (un par podado ya se sabe que no llega)
+        if (score.isPruned() || overallScore < MatchScorer.MIN_MATCH_SCORE) {
+            if (previousScore != null) {
+                matches.remove(jobId, userId);
+            }
+            return null;
         }
 
-        Set<String> candidateSkills = candidate.getAtsProfile().getSkills()
-                .stream()
-                .map(skill -> skill.getName().toLowerCase())
-                .collect(Collectors.toSet());
+        String explanation = matchScorer.explain(score);
+        matches.add(jobId, userId, overallScore, explanation, matchedSkills);
 
-        return job.getSkills()
-                .stream()
-                .filter(jobSkill -> candidateSkills.contains(jobSkill.toLowerCase()))
-                .collect(Collectors.toList());
+        // Notificar al candidato solo cuando el match pasa a ser bueno
+        if (overallScore >= 0.6 && (previousScore == null || previousScore < 0.6)) {
+            notificationService.notifyJobMatched(userId, jobId, overallScore);
+        }
+        return new JobRankingCache.RankedMatch(userId, overallScore, explanation, matchedSkills);
     }
 
     // Métodos CRUD estándar
@@ -241,16 +289,40 @@ public class JobService {
     }
 
     public Page<Job> searchActiveJobs(String query, Pageable pageable) {
-        return jobRepository.searchActiveJobs(query, pageable);
+        String tsQuery = FullTextQuery.toPrefixQuery(query);
+        if (tsQuery == null) {
+            return Page.empty(pageable);
+        }
+        return jobRepository.searchActiveJobs(tsQuery, pageable);
     }
 
-    public Page<Job> findJobsWithFilters(Job.JobType type, String location, 
-                                        Integer minSalary, Integer maxSalary, Pageable pageable) {
+    /**
+     * Si la ubicación se reconoce en el gazetteer se filtra por radio (radiusKm, o el radio por defecto) sobre
+     * los lugares cercanos, con el índice (place_id) de vacantes activas. Si no (p. ej. "Remoto"), por texto
+     */
+    public Page<Job> findJobsWithFilters(Job.JobType type, String location,
+                                        Integer minSalary, Integer maxSalary, Double radiusKm, Pageable pageable) {
+        Integer placeId = placeIndex.resolve(location);
+        if (placeId != null) {
+            Set<Integer> placeIds = placeIndex.placesWithin(placeId, radiusKm != null ? radiusKm : defaultRadiusKm);
+            return jobRepository.findJobsWithFiltersInPlaces(type, placeIds, minSalary, maxSalary, pageable);
+        }
         return jobRepository.findJobsWithFilters(type, location, minSalary, maxSalary, pageable);
     }
 
     public List<Job> findBySkill(String skill) {
-        return jobRepository.findActiveJobsBySkill(skill);
+        List<Integer> termIds = skillDictionary.search(skill);
+        if (termIds.isEmpty()) {
+            return List.of();
+        }
+        return jobRepository.findActiveJobsBySkillTerms(termIds);
+    }
+
+    // Las skills de las vacantes entran en el diccionario al guardarse, para que la búsqueda por skill las encuentre
+    private void registerSkills(List<String> skills) {
+        if (skills != null && !skills.isEmpty()) {
+            skillDictionary.resolve(skills.stream().filter(Objects::nonNull).map(SkillDictionary::normalize).toList());
+        }
     }
 
     public Job updateJob(String jobId, String title, String description, 
@@ -260,30 +332,56 @@ public class JobService {
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Empleo no encontrado"));
 
+        // Solo skills, tipo y ubicación intervienen en el score
+        boolean matchingInputsChanged = !Objects.equals(job.getSkills() != null ? new ArrayList<>(job.getSkills()) : null, skills)
+                || job.getType() != type
+                || !Objects.equals(job.getLocation(), location);
+
         job.setTitle(title);
         job.setDescription(description);
         job.setRequirements(requirements);
         job.setSkills(skills);
         job.setLocation(location);
+        job.setPlaceId(placeIndex.resolve(location));
         job.setType(type);
         job.setSalaryMin(salaryMin);
         job.setSalaryMax(salaryMax);
+        registerSkills(skills);
+
+        job = jobRepository.save(job);
+
+        // El matching en curso se calculó con la versión anterior: se cancela y se vuelve a encolar
+        if (matchingInputsChanged) {
+            eventPublisher.publishEvent(new JobMatchingCancelledEvent(jobId));
+            performAutomaticMatching(job);
+        }
 
-        return jobRepository.save(job);
+        return job;
     }
 
+    /**
+     * Desactiva la vacante y borra sus matches. No se conservan filtrados: ningún matching (por vacante,
+     * por candidato ni masivo) recorre las vacantes inactivas, así que esos matches ya no se actualizarían
+     * y no hay forma de reactivar una vacante. getRanking deja de servirlos porque no quedan filas y el
+     * ranking en caché se invalida tras el commit
+     */
     public void deactivateJob(String jobId) {
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Empleo no encontrado"));
         
         job.setIsActive(false);
         jobRepository.save(job);
+        eventPublisher.publishEvent(new JobMatchingCancelledEvent(jobId));
+        jobMatchWriter.deleteByJobId(jobId);
+        eventPublisher.publishEvent(new JobRankingsChangedEvent(List.of(jobId)));
     }
 
     public void deleteJob(String jobId) {
         if (!jobRepository.existsById(jobId)) {
             throw new RuntimeException("Empleo no encontrado");
         }
+        eventPublisher.publishEvent(new JobMatchingCancelledEvent(jobId));
+        eventPublisher.publishEvent(new JobRankingsChangedEvent(List.of(jobId)));
         jobRepository.deleteById(jobId);
     }
 
@@ -295,7 +393,99 @@ public class JobService {
         return jobMatchRepository.findByJobId(jobId);
     }
 
+    /**
+     * Ranking de candidatos de una vacante por páginas de cursor (score, userId)
+     * La primera página (y las siguientes mientras caigan dentro del top-K) sale del top-K en memoria;
+     * el resto se lee con keyset sobre el índice (job_id, score DESC, user_id). Devuelve hasta limit + 1
+     * entradas para que el llamador sepa si hay más
+     */
+    @Transactional(readOnly = true)
+    public List<CandidateRankingDTO> getRanking(String jobId, int limit, Double afterScore, String afterUserId) {
+        JobRankingCache.Ranking cached = jobRankingCache.get(jobId);
+        if (cached != null) {
+            JobRankingCache.RankedMatch cursor = afterScore != null
+                    ? new JobRankingCache.RankedMatch(afterUserId, afterScore, null, null) : null;
+            List<JobRankingCache.RankedMatch> page = new ArrayList<>(limit + 1);
+            for (JobRankingCache.RankedMatch match : cached.getMatches()) {
+                if (cursor == null || JobRankingCache.RANKING_ORDER.compare(match, cursor) > 0) {
+                    page.add(match);
+                    if (page.size() > limit) {
+                        break;
+                    }
+                }
+            }
+            if (page.size() > limit || cached.isComplete()) {
+                Map<String, User> users = new HashMap<>();
+                for (User user : userRepository.findAllById(page.stream().map(JobRankingCache.RankedMatch::getUserId).toList())) {
+                    users.put(user.getId(), user);
+                }
+                List<CandidateRankingDTO> ranking = new ArrayList<>(page.size());
+                for (JobRankingCache.RankedMatch match : page) {
+                    User user = users.get(match.getUserId());
+                    if (user != null) {
+                        ranking.add(new CandidateRankingDTO(user, match.getScore(), match.getExplanation(), match.getMatchedSkills()));
+                    }
+                }
+                return ranking;
+            }
+        }
+
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<JobMatch> matches = afterScore == null
+                ? jobMatchRepository.findRankingForJob(jobId, pageable)
+                : jobMatchRepository.findRankingForJobAfter(jobId, afterScore, afterUserId, pageable);
+        return matches.stream().map(CandidateRankingDTO::new).toList();
+    }
+
     public List<String> getAllJobLocations() {
         return jobRepository.findAllActiveJobLocations();
     }
-}
\ No newline at end of file
+
+    // Eventos consumidos por JobMatchingExecutor
+    public static class JobMatchingRequestedEvent {
+        private final String jobId;
+
+        public JobMatchingRequestedEvent(String jobId) {
+            this.jobId = jobId;
+        }
+
+        public String getJobId() { return jobId; }
+    }
+
+    public static class JobMatchingCancelledEvent {
+        private final String jobId;
+
+        public JobMatchingCancelledEvent(String jobId) {
+            this.jobId = jobId;
+        }
+
+        public String getJobId() { return jobId; }
+    }
+
+    // Eventos consumidos por JobRankingCache
+    public static class JobRankingComputedEvent {
+        private final String jobId;
+        private final long generation;
+        private final JobRankingCache.Ranking ranking;
+
+        public JobRankingComputedEvent(String jobId, long generation, JobRankingCache.Ranking ranking) {
+            this.jobId = jobId;
+            this.generation = generation;
+            this.ranking = ranking;
+        }
+
+        public String getJobId() { return jobId; }
+        public long getGeneration() { return generation; }
+        public JobRankingCache.Ranking getRanking() { return ranking; }
+    }
+
+    public static class JobRankingsChangedEvent {
+        private final Collection<String> jobIds;
+
+        public JobRankingsChangedEvent(Collection<String> jobIds) {
+            this.jobIds = jobIds;
+        }
+
+        public Collection<String> getJobIds() { return jobIds; }
+    }
+}
@@ -0,0 +1,65 @@
+package com.clipers.clipers.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estrategia basada en ubicación
+ * Vacante y candidato llegan ya resueltos a lugares del gazetteer, así que por par solo se calcula la
+ * distancia entre dos coordenadas del índice en memoria
+ */
+@Component
+@Order(3)
+public class LocationMatchStrategy implements MatchStrategy {
+
+    // Score si falta la ubicación de alguno de los dos: no se puede afirmar ni descartar la cercanía
+    private static final double UNKNOWN_SCORE = 0.7;
+
+    private final double weight;
+    private final PlaceIndex placeIndex;
+
+    @Autowired
+    public LocationMatchStrategy(@Value("${matching.strategy.location.weight:0.2}") double weight,
+                                 PlaceIndex placeIndex) {
+        this.weight = weight;
+        this.placeIndex = placeIndex;
+    }
+
+    @Override
+    public String getName() {
+        return "location";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public double score(Input input) {
+        String jobLocation = input.getJobLocation();
+        if (jobLocation == null || jobLocation.toLowerCase().contains("remoto")) {
+            return 1.0; // Trabajo remoto siempre coincide
+        }
+        if (input.getJobPlaceId() == 0 || input.getCandidatePlaceId() == 0) {
+            return UNKNOWN_SCORE;
+        }
+
+        double distanceKm = placeIndex.distanceKm(input.getJobPlaceId(), input.getCandidatePlaceId());
+        if (Double.isNaN(distanceKm)) {
+            return UNKNOWN_SCORE;
+        }
+        if (distanceKm <= 30) {
+            return 1.0; // Misma ciudad o área metropolitana
+        }
+        if (distanceKm <= 100) {
+            return 0.8;
+        }
+        if (distanceKm <= 300) {
+            return 0.5;
+        }
+        return 0.2;
+    }
+}
@@ -0,0 +1,214 @@
+package com.clipers.clipers.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strategy Pattern - combina las estrategias MatchStrategy registradas, ponderadas por su peso
+ * Cada estrategia se evalúa una sola vez por par y su score queda en un vector (MatchScore) del que luego lee
+ * la explicación. Sin estado propio por par: lo comparten el matching por vacante, el incremental por candidato
+ * y el rematch masivo, que lo invoca desde varios hilos a la vez
+ * Métricas por estrategia (tag "strategy"):
+ * - matching.strategy.latency: latencia de la estrategia, medida en uno de cada matching.strategy.latency-sample-every pares
+ * - matching.strategy.evaluations y matching.strategy.favourable: pares evaluados y pares con score favorable
+ *   (>= 0.5); su cociente es la selectividad. Una estrategia que casi siempre es favorable no discrimina
+ * - matching.strategy.pruned: pares descartados justo después de esa estrategia
+ * Poda: tras cada estrategia se calcula la cota superior del par (lo acumulado más el máximo ponderado de las
+ * estrategias pendientes). Si ni con esa cota se llega a MIN_MATCH_SCORE, el par se descarta sin evaluar el resto
+ */
+@Component
+public class MatchScorer {
+
+    // Por debajo de este score el match no se guarda
+    public static final double MIN_MATCH_SCORE = 0.3;
+
+    private static final double FAVOURABLE_SCORE = 0.5;
+
+    // Margen para que el redondeo de la cota nunca descarte un par que con el score completo sí llega al umbral
+    private static final double PRUNE_EPSILON = 1e-9;
+
+    private final MatchStrategy[] strategies;
+    private final Timer[] latency;
+    private final Counter[] evaluations;
+    private final Counter[] favourable;
+    private final Counter[] pruned;
+    // remainingMax[s]: máximo ponderado que pueden aportar las estrategias posteriores a s
+    private final double[] remainingMax;
+    private final int sampleEvery;
+
+    @Autowired
+    public MatchScorer(List<MatchStrategy> strategies,
+                       MeterRegistry meterRegistry,
+                       @Value("${matching.strategy.latency-sample-every:64}") int sampleEvery) {
+        this.strategies = strategies.toArray(new MatchStrategy[0]);
+        this.latency = new Timer[this.strategies.length];
+        this.evaluations = new Counter[this.strategies.length];
+        this.favourable = new Counter[this.strategies.length];
+        this.pruned = new Counter[this.strategies.length];
+        this.remainingMax = new double[this.strategies.length];
+        for (int s = 0; s < this.strategies.length; s++) {
+            String name = this.strategies[s].getName();
+            latency[s] = Timer.builder("matching.strategy.latency")
+                    .description("Latencia de una estrategia de matching por par (muestreada)")
+                    .tag("strategy", name)
+                    .register(meterRegistry);
+            evaluations[s] = Counter.builder("matching.strategy.evaluations")
+                    .description("Pares evaluados por la estrategia")
+                    .tag("strategy", name)
+                    .register(meterRegistry);
+            favourable[s] = Counter.builder("matching.strategy.favourable")
+                    .description("Pares con score favorable en la estrategia")
+                    .tag("strategy", name)
+                    .register(meterRegistry);
+            pruned[s] = Counter.builder("matching.strategy.pruned")
+                    .description("Pares descartados por cota tras evaluar la estrategia")
+                    .tag("strategy", name)
+                    .register(meterRegistry);
+        }
+        for (int s = this.strategies.length - 2; s >= 0; s--) {
+            MatchStrategy next = this.strategies[s + 1];
+            remainingMax[s] = remainingMax[s + 1] + next.getWeight() * next.getMaxScore();
+        }
+        this.sampleEvery = Math.max(sampleEvery, 1);
+    }
+
+    // Vector de scores reutilizable: se sobrescribe en cada llamada a score
+    public MatchScore newScore() {
+        return new MatchScore(strategies.length);
+    }
+
+    // Contadores de una ejecución; no es seguro compartirlos entre hilos
+    public Stats newStats() {
+        return new Stats(strategies.length);
+    }
+
+    public int getStrategyCount() {
+        return strategies.length;
+    }
+
+    public String getStrategyName(int strategy) {
+        return strategies[strategy].getName();
+    }
+
+    /**
+     * Evalúa las estrategias sobre el par y deja los scores en el vector indicado
+     * Si el par se poda, el vector queda marcado como podado y su score combinado (parcial) está por debajo
+     * de MIN_MATCH_SCORE; los scores de las estrategias no evaluadas no son válidos
+     */
+    public MatchScore score(MatchStrategy.Input input, MatchScore into, Stats stats) {
+        boolean sampled = stats.pairs++ % sampleEvery == 0;
+        double overallScore = 0.0;
+        for (int s = 0; s < strategies.length; s++) {
+            double value;
+            if (sampled) {
+                long start = System.nanoTime();
+                value = strategies[s].score(input);
+                latency[s].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                value = strategies[s].score(input);
+            }
+            into.scores[s] = value;
+            overallScore += value * strategies[s].getWeight();
+            stats.evaluations[s]++;
+            if (value >= FAVOURABLE_SCORE) {
+                stats.favourable[s]++;
+            }
+            if (s < strategies.length - 1 && overallScore + remainingMax[s] < MIN_MATCH_SCORE - PRUNE_EPSILON) {
+                stats.pruned[s]++;
+                into.overallScore = overallScore;
+                into.pruned = true;
+                return into;
+            }
+        }
+        into.overallScore = overallScore;
+        into.pruned = false;
+        return into;
+    }
+
+    public String explain(MatchScore score) {
+        StringBuilder explanation = new StringBuilder();
+        explanation.append("Análisis de compatibilidad:\n");
+        for (int s = 0; s < strategies.length; s++) {
+            strategies[s].explain(score.scores[s], explanation);
+        }
+        explanation.append(String.format("Score general: %.2f", score.getOverallScore()));
+        return explanation.toString();
+    }
+
+    // Vuelca a Micrometer los contadores de una ejecución y los deja a cero
+    public void publish(Stats stats) {
+        for (int s = 0; s < strategies.length; s++) {
+            evaluations[s].increment(stats.evaluations[s]);
+            favourable[s].increment(stats.favourable[s]);
+            pruned[s].increment(stats.pruned[s]);
+        }
+        stats.pairs = 0;
+        Arrays.fill(stats.evaluations, 0);
+        Arrays.fill(stats.favourable, 0);
+        Arrays.fill(stats.pruned, 0);
+    }
+
+    // Vector de scores de un par: uno por estrategia, en el orden de las estrategias, más el score combinado
+    public static class MatchScore {
+        private final double[] scores;
+        private double overallScore;
+        private boolean pruned;
+
+        MatchScore(int size) {
+            this.scores = new double[size];
+        }
+
+        // Copia inmutable en la práctica, para guardar el par cuando el vector se reutiliza
+        public MatchScore copy() {
+            MatchScore copy = new MatchScore(scores.length);
+            System.arraycopy(scores, 0, copy.scores, 0, scores.length);
+            copy.overallScore = overallScore;
+            copy.pruned = pruned;
+            return copy;
+        }
+
+        public double getScore(int strategy) { return scores[strategy]; }
+        public double getOverallScore() { return overallScore; }
+        public boolean isPruned() { return pruned; }
+    }
+
+    public static class Stats {
+        private long pairs;
+        private final long[] evaluations;
+        private final long[] favourable;
+        private final long[] pruned;
+
+        Stats(int size) {
+            this.evaluations = new long[size];
+            this.favourable = new long[size];
+            this.pruned = new long[size];
+        }
+
+        public long getPruned(int strategy) { return pruned[strategy]; }
+    }
+
+    // Par ya puntuado, pendiente de guardarse
+    public static class ScoredPair {
+        private final String userId;
+        private final MatchScore score;
+        private final List<String> matchedSkills;
+
+        public ScoredPair(String userId, MatchScore score, List<String> matchedSkills) {
+            this.userId = userId;
+            this.score = score;
+            this.matchedSkills = matchedSkills;
+        }
+
+        public String getUserId() { return userId; }
+        public MatchScore getScore() { return score; }
+        public List<String> getMatchedSkills() { return matchedSkills; }
+    }
+}
@@ -0,0 +1,70 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.Job;
+
+/**
+ * Strategy Pattern - estrategia de matching enchufable
+ * Cada implementación puntúa un aspecto del par (vacante, candidato) entre 0 y 1. MatchScorer combina
+ * todos los beans MatchStrategy, en el orden de @Order, ponderados con getWeight()
+ * Las implementaciones no guardan estado: se invocan desde varios hilos a la vez
+ */
+public interface MatchStrategy {
+
+    // Nombre corto, usado como tag "strategy" en las métricas
+    String getName();
+
+    double getWeight();
+
+    double score(Input input);
+
+    // Score máximo que puede devolver score(); MatchScorer lo usa como cota para descartar pares antes de terminar
+    default double getMaxScore() {
+        return 1.0;
+    }
+
+    // Añade a la explicación del match la línea correspondiente al score ya calculado
+    default void explain(double score, StringBuilder explanation) {
+    }
+
+    /**
+     * Datos de un par (vacante, candidato) que leen las estrategias
+     * Es mutable para reutilizar una sola instancia en los bucles de matching en lugar de crear una por par
+     */
+    class Input {
+        private boolean candidateHasSkills;
+        private int matchedSkillCount;
+        private int jobSkillCount;
+        private boolean hasExperience;
+        private int experienceYears;
+        private Job.JobType jobType;
+        private String jobLocation;
+        private int jobPlaceId;
+        private int candidatePlaceId;
+
+        // Los lugares son ids del gazetteer, 0 si la ubicación no se reconoció
+        public Input set(boolean candidateHasSkills, int matchedSkillCount, int jobSkillCount,
+                         boolean hasExperience, int experienceYears, Job.JobType jobType, String jobLocation,
+                         int jobPlaceId, int candidatePlaceId) {
+            this.candidateHasSkills = candidateHasSkills;
+            this.matchedSkillCount = matchedSkillCount;
+            this.jobSkillCount = jobSkillCount;
+            this.hasExperience = hasExperience;
+            this.experienceYears = experienceYears;
+            this.jobType = jobType;
+            this.jobLocation = jobLocation;
+            this.jobPlaceId = jobPlaceId;
+            this.candidatePlaceId = candidatePlaceId;
+            return this;
+        }
+
+        public boolean candidateHasSkills() { return candidateHasSkills; }
+        public int getMatchedSkillCount() { return matchedSkillCount; }
+        public int getJobSkillCount() { return jobSkillCount; }
+        public boolean hasExperience() { return hasExperience; }
+        public int getExperienceYears() { return experienceYears; }
+        public Job.JobType getJobType() { return jobType; }
+        public String getJobLocation() { return jobLocation; }
+        public int getJobPlaceId() { return jobPlaceId; }
+        public int getCandidatePlaceId() { return candidatePlaceId; }
+    }
+}
@@ -0,0 +1,257 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.Place;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice en memoria del gazetteer: resolución de ubicaciones en texto libre a lugares canónicos,
+ * coordenadas por id y búsqueda por radio con cubetas geohash
+ * Se construye entero en cada carga y se publica de una vez (referencia volátil), así que las lecturas,
+ * que el matching hace por cada par, no toman ningún lock
+ */
+@Component
+public class PlaceIndex {
+
+    // Celdas de ~39 x 20 km: una búsqueda de 25-100 km recorre unas pocas decenas de cubetas
+    private static final int BUCKET_PRECISION = 4;
+    // Radios tan grandes que cubrirían más celdas que esto se resuelven recorriendo todos los lugares
+    private static final int MAX_CELLS = 4096;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private volatile Snapshot snapshot = new Snapshot(0);
+
+    /**
+     * Sustituye el índice completo
+     * @param aliases filas [placeId, alias]
+     * @param countries nombre de país normalizado -> código ISO
+     */
+    public void load(List<Place> places, List<Object[]> aliases, Map<String, String> countries) {
+        int maxId = 0;
+        for (Place place : places) {
+            maxId = Math.max(maxId, place.getId());
+        }
+
+        Snapshot next = new Snapshot(maxId + 1);
+        Map<String, List<Integer>> byName = new HashMap<>();
+        Map<String, List<Integer>> buckets = new HashMap<>();
+        for (Place place : places) {
+            int id = place.getId();
+            next.latitudes[id] = place.getLatitude();
+            next.longitudes[id] = place.getLongitude();
+            next.countryCodes[id] = place.getCountry();
+            next.populations[id] = place.getPopulation() != null ? place.getPopulation() : 0;
+            byName.computeIfAbsent(normalize(place.getName()), n -> new ArrayList<>()).add(id);
+            buckets.computeIfAbsent(Geohash.encode(place.getLatitude(), place.getLongitude(), BUCKET_PRECISION),
+                    h -> new ArrayList<>()).add(id);
+        }
+        for (Object[] row : aliases) {
+            List<Integer> ids = byName.computeIfAbsent(normalize((String) row[1]), n -> new ArrayList<>());
+            if (!ids.contains((Integer) row[0])) {
+                ids.add((Integer) row[0]);
+            }
+        }
+        byName.forEach((name, ids) -> next.byName.put(name, toArray(ids)));
+        buckets.forEach((hash, ids) -> next.buckets.put(hash, toArray(ids)));
+        next.countries.putAll(countries);
+        next.size = places.size();
+        snapshot = next;
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * Resuelve una ubicación en texto libre ("Bogotá", "Córdoba, España", "Medellín, Antioquia, Colombia")
+     * Se prueba cada segmento separado por comas; si un nombre es ambiguo gana el lugar del país indicado en
+     * el texto o, sin país, el más poblado. Devuelve null si no se reconoce ningún lugar
+     */
+    public Integer resolve(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        List<String> segments = new ArrayList<>();
+        for (String segment : normalize(location).split(",")) {
+            if (!segment.isBlank()) {
+                segments.add(segment.trim());
+            }
+        }
+
+        // País indicado como segmento propio ("Córdoba, España")
+        String country = null;
+        for (String segment : segments) {
+            String code = current.countries.get(segment);
+            if (code != null) {
+                country = code;
+            }
+        }
+
+        for (String segment : segments) {
+            int[] ids = current.byName.get(segment);
+            if (ids != null) {
+                return best(current, ids, country);
+            }
+            // País al final del mismo segmento ("bogota colombia")
+            for (Map.Entry<String, String> entry : current.countries.entrySet()) {
+                if (segment.endsWith(" " + entry.getKey())) {
+                    ids = current.byName.get(segment.substring(0, segment.length() - entry.getKey().length() - 1));
+                    if (ids != null) {
+                        return best(current, ids, entry.getValue());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    // Distancia en km entre dos lugares, o NaN si alguno no existe
+    public double distanceKm(int placeId, int otherPlaceId) {
+        Snapshot current = snapshot;
+        if (!current.contains(placeId) || !current.contains(otherPlaceId)) {
+            return Double.NaN;
+        }
+        return haversine(current.latitudes[placeId], current.longitudes[placeId],
+                current.latitudes[otherPlaceId], current.longitudes[otherPlaceId]);
+    }
+
+    /**
+     * Lugares a como mucho radiusKm del lugar indicado (incluido él mismo)
+     * Solo se revisan las cubetas geohash que cubren el recuadro del radio
+     */
+    public Set<Integer> placesWithin(int placeId, double radiusKm) {
+        Snapshot current = snapshot;
+        Set<Integer> result = new HashSet<>();
+        if (!current.contains(placeId)) {
+            return result;
+        }
+        double latitude = current.latitudes[placeId];
+        double longitude = current.longitudes[placeId];
+
+        // Recuadro exacto del círculo en la esfera (la misma que usa haversine). Si el círculo contiene un polo
+        // abarca todas las longitudes
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double deltaLat = Math.toDegrees(angularRadius);
+        double deltaLon = latitude + deltaLat >= 90 || latitude - deltaLat <= -90 || angularRadius >= Math.PI / 2
+                ? 180
+                : Math.toDegrees(Math.asin(Math.min(1.0, Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude)))));
+        double minLat = Math.max(latitude - deltaLat, -90);
+        double maxLat = Math.min(latitude + deltaLat, 90);
+        double cellHeight = Geohash.cellHeight(BUCKET_PRECISION);
+        double cellWidth = Geohash.cellWidth(BUCKET_PRECISION);
+        long rows = (long) Math.ceil((maxLat - minLat) / cellHeight) + 1;
+        long cols = (long) Math.ceil(2 * deltaLon / cellWidth) + 1;
+
+        if (deltaLon >= 180 || rows * cols > MAX_CELLS) {
+            for (int id = 0; id < current.latitudes.length; id++) {
+                if (current.contains(id) && withinRadius(current, id, latitude, longitude, radiusKm)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        for (long row = 0; row < rows; row++) {
+            double cellLat = Math.min(minLat + row * cellHeight, maxLat);
+            for (long col = 0; col < cols; col++) {
+                double cellLon = wrapLongitude(Math.min(longitude - deltaLon + col * cellWidth, longitude + deltaLon));
+                int[] bucket = current.buckets.get(Geohash.encode(cellLat, cellLon, BUCKET_PRECISION));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int id : bucket) {
+                    if (withinRadius(current, id, latitude, longitude, radiusKm)) {
+                        result.add(id);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forma normalizada de un nombre de lugar: sin tildes, en minúsculas, sin signos salvo las comas
+     */
+    public static String normalize(String text) {
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9,]+", " ")
+                .replaceAll(" ?, ?", ",")
+                .trim();
+    }
+
+    private static Integer best(Snapshot current, int[] ids, String country) {
+        int best = -1;
+        boolean bestInCountry = false;
+        for (int id : ids) {
+            boolean inCountry = country != null && country.equals(current.countryCodes[id]);
+            if (best < 0 || (inCountry && !bestInCountry)
+                    || (inCountry == bestInCountry && current.populations[id] > current.populations[best])) {
+                best = id;
+                bestInCountry = inCountry;
+            }
+        }
+        return best;
+    }
+
+    private static boolean withinRadius(Snapshot current, int id, double latitude, double longitude, double radiusKm) {
+        return haversine(latitude, longitude, current.latitudes[id], current.longitudes[id]) <= radiusKm;
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude >= 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Estado inmutable una vez publicado: coordenadas indexadas por id de lugar (NaN si el id no existe)
+    private static class Snapshot {
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final String[] countryCodes;
+        private final int[] populations;
+        private final Map<String, int[]> byName = new HashMap<>();
+        private final Map<String, int[]> buckets = new HashMap<>();
+        private final Map<String, String> countries = new HashMap<>();
+        private int size;
+
+        Snapshot(int capacity) {
+            this.latitudes = new double[capacity];
+            this.longitudes = new double[capacity];
+            this.countryCodes = new String[capacity];
+            this.populations = new int[capacity];
+            Arrays.fill(latitudes, Double.NaN);
+            Arrays.fill(longitudes, Double.NaN);
+        }
+
+        boolean contains(int id) {
+            return id > 0 && id < latitudes.length && !Double.isNaN(latitudes[id]);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.Place;
+import com.clipers.clipers.repository.JobRepository;
+import com.clipers.clipers.repository.PlaceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carga del gazetteer incluido en la aplicación (gazetteer/places.csv) en la tabla places, construcción
+ * del índice en memoria y ubicación de las vacantes que aún no tienen lugar
+ * La importación es idempotente: los lugares se identifican por nombre normalizado y país
+ */
+@Service
+@Transactional
+public class PlaceService {
+
+    private static final String PLACES_CSV = "gazetteer/places.csv";
+    private static final String COUNTRIES_CSV = "gazetteer/countries.csv";
+
+    private final PlaceRepository placeRepository;
+    private final JobRepository jobRepository;
+    private final PlaceIndex placeIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PlaceService(PlaceRepository placeRepository,
+                        JobRepository jobRepository,
+                        PlaceIndex placeIndex,
+                        PlatformTransactionManager transactionManager) {
+        this.placeRepository = placeRepository;
+        this.jobRepository = jobRepository;
+        this.placeIndex = placeIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void initialize() {
+        try {
+            Integer imported = transactionTemplate.execute(status -> importGazetteer());
+            transactionTemplate.executeWithoutResult(status -> reloadIndex());
+            Integer located = transactionTemplate.execute(status -> backfillJobPlaces());
+            System.out.println("Gazetteer cargado: " + placeIndex.size() + " lugares (" + imported + " nuevos), "
+                    + located + " vacantes ubicadas");
+        } catch (Exception e) {
+            System.err.println("Error cargando el gazetteer: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inserta los lugares nuevos del CSV y actualiza los existentes. Devuelve cuántos se crearon
+     */
+    public int importGazetteer() {
+        Map<String, Place> existing = new HashMap<>();
+        for (Place place : placeRepository.findAll()) {
+            existing.put(place.getNormalizedName() + "|" + place.getCountry(), place);
+        }
+
+        int created = 0;
+        for (String[] row : readCsv(PLACES_CSV)) {
+            String normalizedName = PlaceIndex.normalize(row[0]);
+            String country = row[2].trim().toUpperCase();
+            Place place = existing.get(normalizedName + "|" + country);
+            if (place == null) {
+                place = new Place();
+                place.setNormalizedName(normalizedName);
+                place.setCountry(country);
+                created++;
+            }
+            place.setName(row[0].trim());
+            place.setAdmin(row[1].trim());
+            place.setLatitude(Double.parseDouble(row[3].trim()));
+            place.setLongitude(Double.parseDouble(row[4].trim()));
+            place.setPopulation(row[5].isBlank() ? null : Integer.valueOf(row[5].trim()));
+
+            List<String> aliases = new ArrayList<>();
+            if (row.length > 6) {
+                for (String alias : row[6].split("\\|")) {
+                    if (!alias.isBlank()) {
+                        aliases.add(PlaceIndex.normalize(alias));
+                    }
+                }
+            }
+            // Solo se reescribe la colección si cambió, para no borrar e insertar los alias en cada arranque
+            if (!aliases.equals(place.getAliases())) {
+                place.getAliases().clear();
+                place.getAliases().addAll(aliases);
+            }
+            placeRepository.save(place);
+        }
+        return created;
+    }
+
+    public void reloadIndex() {
+        Map<String, String> countries = new HashMap<>();
+        for (String[] row : readCsv(COUNTRIES_CSV)) {
+            for (String name : row[1].split("\\|")) {
+                countries.put(PlaceIndex.normalize(name), row[0].trim().toUpperCase());
+            }
+        }
+        placeIndex.load(placeRepository.findAll(), placeRepository.findAllAliases(), countries);
+    }
+
+    /**
+     * Asigna lugar a las vacantes que aún no lo tienen, una actualización por ubicación distinta
+     * Las ubicaciones que no se reconocen se vuelven a intentar en el siguiente arranque
+     */
+    public int backfillJobPlaces() {
+        int located = 0;
+        for (String location : jobRepository.findLocationsWithoutPlace()) {
+            Integer placeId = placeIndex.resolve(location);
+            if (placeId != null) {
+                located += jobRepository.updatePlaceIdByLocation(location, placeId);
+            }
+        }
+        return located;
+    }
+
+    // Filas de un CSV del classpath, sin la cabecera ni las líneas vacías
+    private List<String[]> readCsv(String path) {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    rows.add(line.split(",", -1));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo " + path + ": " + e.getMessage(), e);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,204 @@
+package com.clipers.clipers.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contador de likes de los posts agregado en memoria
+ * Cada like o unlike confirmado suma +1/-1 a un LongAdder por post (con celdas repartidas entre hilos, así
+ * un post viral no serializa a quienes le dan like) y un volcado periódico aplica las sumas a posts.likes
+ * con UPDATE likes = likes + ? en un único lote ordenado por id. La fuente de verdad sigue siendo post_likes
+ * Los deltas se pierden si el proceso muere antes de volcarlos, y un like confirmado mientras se reconcilia
+ * puede contarse dos veces, así que posts.likes también se recalcula desde post_likes: al arrancar para todos
+ * los posts descuadrados y, periódicamente, para los posts volcados desde la última reconciliación
+ * Cota: mientras el proceso vive, posts.likes va por detrás como mucho un intervalo de volcado y cualquier
+ * descuadre se corrige en el siguiente intervalo de reconciliación tras el último like del post; lo perdido
+ * en una caída se corrige al siguiente arranque
+ */
+@Component
+public class PostLikeCounter {
+
+    private static final String FLUSH_SQL = "UPDATE posts SET likes = likes + ? WHERE id = ?";
+    private static final String LIKE_COUNT = "(SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id)";
+    private static final String RECONCILE_SQL = "UPDATE posts p SET likes = " + LIKE_COUNT +
+            " WHERE p.id = ? AND p.likes <> " + LIKE_COUNT;
+    private static final String RECONCILE_ALL_SQL = "UPDATE posts p SET likes = c.total FROM " +
+            "(SELECT p2.id, COUNT(l.post_id) AS total FROM posts p2 LEFT JOIN post_likes l ON l.post_id = p2.id " +
+            "GROUP BY p2.id) c WHERE c.id = p.id AND p.likes <> c.total";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+    // Sumadores ya sacados del mapa: se vuelven a vaciar en el siguiente volcado por si un hilo que aún
+    // tenía la referencia sumó después de sacarlos
+    private List<Map.Entry<String, LongAdder>> retired = new ArrayList<>();
+    // Posts volcados desde la última reconciliación
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter flushedPosts;
+    private final Counter flushFailures;
+    private final Counter reconciled;
+
+    @Autowired
+    public PostLikeCounter(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        meterRegistry.gauge("posts.likes.pending", pending, Map::size);
+        this.flushedPosts = Counter.builder("posts.likes.flushed")
+                .description("Posts cuyo contador de likes se actualizó en un volcado")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("posts.likes.flush.failures")
+                .description("Volcados de likes fallidos (los deltas se reintentan en el siguiente)")
+                .register(meterRegistry);
+        this.reconciled = Counter.builder("posts.likes.reconciled")
+                .description("Posts cuyo contador de likes se corrigió con el recuento de post_likes")
+                .register(meterRegistry);
+    }
+
+    public void add(String postId, long delta) {
+        pending.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLikeChanged(PostService.LikeChangedEvent event) {
+        add(event.getPostId(), event.getDelta());
+    }
+
+    /**
+     * Aplica a posts.likes los deltas acumulados. Si el lote falla, los deltas vuelven a quedar pendientes
+     */
+    @Scheduled(fixedDelayString = "${posts.likes.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            // Orden por id: dos instancias que vuelcan a la vez bloquean las filas en el mismo orden
+            Map<String, Long> deltas = new TreeMap<>();
+            for (Map.Entry<String, LongAdder> entry : retired) {
+                deltas.merge(entry.getKey(), entry.getValue().sumThenReset(), Long::sum);
+            }
+            List<Map.Entry<String, LongAdder>> drained = new ArrayList<>();
+            for (Map.Entry<String, LongAdder> entry : pending.entrySet()) {
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    drained.add(Map.entry(entry.getKey(), entry.getValue()));
+                    deltas.merge(entry.getKey(), entry.getValue().sumThenReset(), Long::sum);
+                }
+            }
+            retired = drained;
+            deltas.values().removeIf(delta -> delta == 0);
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> batch = new ArrayList<>(deltas.size());
+            deltas.forEach((postId, delta) -> batch.add(new Object[]{delta, postId}));
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+                flushedPosts.increment(deltas.size());
+                touched.addAll(deltas.keySet());
+            } catch (Exception e) {
+                System.err.println("Error volcando likes de " + deltas.size() + " posts: " + e.getMessage());
+                flushFailures.increment();
+                deltas.forEach(this::add);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Recalcula desde post_likes el contador de los posts volcados desde la última reconciliación
+     * Los que aún tienen deltas pendientes se dejan para la siguiente: su recuento ya incluye esos likes
+     */
+    @Scheduled(fixedDelayString = "${posts.likes.reconcile-interval-ms:300000}",
+               initialDelayString = "${posts.likes.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        flushLock.lock();
+        try {
+            flush();
+            Set<String> postIds = new TreeSet<>();
+            for (String postId : touched) {
+                if (!pending.containsKey(postId) && touched.remove(postId)) {
+                    postIds.add(postId);
+                }
+            }
+            if (postIds.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> batch = new ArrayList<>(postIds.size());
+            for (String postId : postIds) {
+                batch.add(new Object[]{postId});
+            }
+            try {
+                int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(RECONCILE_SQL, batch));
+                reconciled.increment(sumUpdated(counts));
+            } catch (Exception e) {
+                System.err.println("Error reconciliando likes de " + postIds.size() + " posts: " + e.getMessage());
+                touched.addAll(postIds);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Al arrancar corrige todos los posts descuadrados, incluidos los deltas que se perdieron en una caída
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAll() {
+        flushLock.lock();
+        try {
+            flush();
+            Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(RECONCILE_ALL_SQL));
+            if (updated != null && updated > 0) {
+                reconciled.increment(updated);
+                System.out.println("Contador de likes reconciliado en " + updated + " posts");
+            }
+        } catch (Exception e) {
+            System.err.println("Error reconciliando el contador de likes: " + e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Filas corregidas del lote: la condición likes <> recuento deja fuera las que ya cuadraban
+    private static long sumUpdated(int[] counts) {
+        long total = 0;
+        if (counts != null) {
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -1,21 +1,25 @@
 package com.clipers.clipers.service;
 
+import com.clipers.clipers.dto.CommentDTO;
+import com.clipers.clipers.dto.FeedCursor;
 import com.clipers.clipers.entity.Comment;
 import com.clipers.clipers.entity.Post;
-import com.clipers.clipers.entity.PostLike;
 import com.clipers.clipers.entity.User;
 import com.clipers.clipers.repository.CommentRepository;
 import com.clipers.clipers.repository.PostLikeRepository;
 import com.clipers.clipers.repository.PostRepository;
 import com.clipers.clipers.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Servicio que implementa Mediator Pattern implícitamente
@@ -30,18 +34,21 @@ public class PostService {
     private final PostLikeRepository postLikeRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public PostService(PostRepository postRepository,
                       CommentRepository commentRepository,
                       PostLikeRepository postLikeRepository,
                       UserRepository userRepository,
-                      NotificationService notificationService) {
+                      NotificationService notificationService,
+                      ApplicationEventPublisher eventPublisher) {
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
         this.postLikeRepository = postLikeRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -61,6 +68,7 @@ public class PostService {
         
         // Step 4: Notify observers (if needed)
         // En este caso, no notificamos la creación de posts
+        eventPublisher.publishEvent(new FeedChangedEvent(post.getId()));
         
         return post;
     }
@@ -72,32 +80,30 @@ public class PostService {
 
     /**
      * Mediator Pattern - coordina la acción de dar like
+     * El like se borra o se crea con una sola sentencia apoyada en la restricción única (user_id, post_id),
+     * sin leer antes; el contador del post lo actualiza PostLikeCounter tras el commit
      */
     public void toggleLike(String postId, String userId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Publicación no encontrada"));
         
-        User user = validateAndGetUser(userId);
-        
-        Optional<PostLike> existingLike = postLikeRepository.findByUserIdAndPostId(userId, postId);
+        validateAndGetUser(userId);
         
-        if (existingLike.isPresent()) {
+        if (postLikeRepository.deleteLike(userId, postId) > 0) {
             // Remove like
-            postLikeRepository.delete(existingLike.get());
-            post.setLikes(post.getLikes() - 1);
-        } else {
-            // Add like
-            PostLike like = new PostLike(user, post);
-            postLikeRepository.save(like);
-            post.setLikes(post.getLikes() + 1);
+            eventPublisher.publishEvent(new LikeChangedEvent(postId, -1));
+            return;
+        }
+        
+        // Add like (si otra petición del mismo usuario se adelantó, no se inserta nada)
+        if (postLikeRepository.insertIfAbsent(UUID.randomUUID().toString(), userId, postId) > 0) {
+            eventPublisher.publishEvent(new LikeChangedEvent(postId, 1));
             
             // Notify post owner (Observer pattern implícito)
             if (!post.getUser().getId().equals(userId)) {
                 notificationService.notifyPostLiked(post.getUser().getId(), userId, postId);
             }
         }
-        
-        postRepository.save(post);
     }
 
     /**
@@ -125,19 +131,43 @@ public class PostService {
     }
 
     public Page<Post> getFeed(Pageable pageable) {
-        return postRepository.findAllByOrderByCreatedAtDesc(pageable);
+        return postRepository.findFeedPage(pageable);
+    }
+
+    /**
+     * Página del feed que empieza justo después del cursor (o al principio si es null)
+     * Devuelve hasta limit + 1 posts para que el llamador sepa si hay más
+     */
+    @Transactional(readOnly = true)
+    public List<Post> getFeedPage(FeedCursor after, int limit) {
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        return after == null
+                ? postRepository.findFeed(pageable)
+                : postRepository.findFeedAfter(after.getCreatedAt(), after.getId(), pageable);
     }
 
     public List<Post> findByUserId(String userId) {
         return postRepository.findByUserId(userId);
     }
 
-    public List<Comment> getComments(String postId) {
-        return commentRepository.findByPostId(postId);
+    /**
+     * Página del hilo de comentarios que empieza justo después del cursor (o al principio si es null)
+     * Devuelve hasta limit + 1 comentarios para que el llamador sepa si hay más
+     */
+    @Transactional(readOnly = true)
+    public List<CommentDTO> getCommentsPage(String postId, FeedCursor after, int limit) {
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        return after == null
+                ? commentRepository.findThread(postId, pageable)
+                : commentRepository.findThreadAfter(postId, after.getCreatedAt(), after.getId(), pageable);
     }
 
     public Page<Post> searchPosts(String query, Pageable pageable) {
-        return postRepository.searchPosts(query, pageable);
+        String tsQuery = FullTextQuery.toPrefixQuery(query);
+        if (tsQuery == null) {
+            return Page.empty(pageable);
+        }
+        return postRepository.searchPosts(tsQuery, pageable);
     }
 
     public Post updatePost(String id, String content) {
@@ -145,7 +175,9 @@ public class PostService {
                 .orElseThrow(() -> new RuntimeException("Publicación no encontrada"));
 
         post.setContent(content);
-        return postRepository.save(post);
+        post = postRepository.save(post);
+        eventPublisher.publishEvent(new FeedChangedEvent(id));
+        return post;
     }
 
     public void deletePost(String id) {
@@ -153,5 +185,31 @@ public class PostService {
             throw new RuntimeException("Publicación no encontrada");
         }
         postRepository.deleteById(id);
+        eventPublisher.publishEvent(new FeedChangedEvent(id));
+    }
+
+    // Evento publicado al crear, editar o borrar un post; lo consume FeedCache tras el commit
+    public static class FeedChangedEvent {
+        private final String postId;
+
+        public FeedChangedEvent(String postId) {
+            this.postId = postId;
+        }
+
+        public String getPostId() { return postId; }
+    }
+
+    // Like o unlike confirmado (+1 / -1); lo acumula PostLikeCounter tras el commit
+    public static class LikeChangedEvent {
+        private final String postId;
+        private final int delta;
+
+        public LikeChangedEvent(String postId, int delta) {
+            this.postId = postId;
+            this.delta = delta;
+        }
+
+        public String getPostId() { return postId; }
+        public int getDelta() { return delta; }
     }
 }
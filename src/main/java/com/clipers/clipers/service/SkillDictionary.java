@@ -0,0 +1,194 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.SkillTerm;
+import com.clipers.clipers.repository.SkillTermRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de skills: nombre normalizado -> id entero (tabla skill_terms), con caché en memoria
+ * Los ids no cambian nunca, así que la caché no necesita invalidación. Los términos nuevos se confirman
+ * en su propia transacción para que un rollback del llamador no deje ids cacheados que no existen
+ * También resuelve las búsquedas por skill: el texto se convierte en ids de términos (con sus sinónimos,
+ * cargados de skills/synonyms.csv) y las consultas cruzan esos ids con vacantes, clipers y perfiles
+ */
+@Component
+public class SkillDictionary {
+
+    public static final int UNKNOWN = -1;
+
+    private static final String SYNONYMS_CSV = "skills/synonyms.csv";
+
+    private final SkillTermRepository skillTermRepository;
+    private final TransactionTemplate requiresNew;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    // pg_trgm es opcional (SchemaExtensionsInitializer): sin él la búsqueda se queda en subcadenas
+    private volatile boolean trigramAvailable;
+
+    @Autowired
+    public SkillDictionary(SkillTermRepository skillTermRepository, PlatformTransactionManager transactionManager) {
+        this.skillTermRepository = skillTermRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public static String normalize(String name) {
+        return name.toLowerCase();
+    }
+
+    /**
+     * Da de alta como términos las skills ya guardadas y agrupa los sinónimos del fichero incluido
+     * Idempotente; un fallo se registra sin impedir el arranque
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            Integer added = requiresNew.execute(status -> skillTermRepository.insertMissingFromPostings());
+            Integer grouped = requiresNew.execute(status -> loadSynonyms());
+            trigramAvailable = skillTermRepository.countTrigramExtension() > 0;
+            if (!trigramAvailable) {
+                System.err.println("Sin pg_trgm la búsqueda por skill solo encontrará subcadenas");
+            }
+            System.out.println("Diccionario de skills: " + added + " términos nuevos, " + grouped + " sinónimos agrupados");
+        } catch (Exception e) {
+            System.err.println("Error inicializando el diccionario de skills: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ids de los términos que contienen el texto o se le parecen, ampliados con sus sinónimos
+     * ("spring" encuentra también "spring boot"). Vacío si el texto no coincide con ningún término
+     * Los parecidos solo se buscan si pg_trgm está instalado; sin él, solo los términos que contienen el texto
+     */
+    public List<Integer> search(String text) {
+        String query = text != null ? normalize(text.trim()) : "";
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        String pattern = escapeLike(query);
+        return trigramAvailable
+                ? skillTermRepository.findIdsMatching(pattern, query)
+                : skillTermRepository.findIdsContaining(pattern);
+    }
+
+    // El texto se busca literal: %, _ y la propia barra de escape no actúan como comodines en LIKE
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Ids ordenados y sin repetir de los nombres dados (ya normalizados), creando los términos que falten
+     */
+    public int[] resolve(Collection<String> names) {
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (!ids.containsKey(name)) {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            requiresNew.executeWithoutResult(status -> missing.forEach(skillTermRepository::insertIfAbsent));
+            load(missing);
+        }
+
+        return names.stream()
+                .mapToInt(name -> ids.getOrDefault(name, UNKNOWN))
+                .filter(id -> id != UNKNOWN)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Ids de los nombres dados (ya normalizados) sin crear términos; los desconocidos quedan como UNKNOWN
+     */
+    public Map<String, Integer> lookup(Collection<String> names) {
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (!ids.containsKey(name)) {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            load(missing);
+        }
+
+        Map<String, Integer> result = new HashMap<>();
+        for (String name : names) {
+            result.put(name, ids.getOrDefault(name, UNKNOWN));
+        }
+        return result;
+    }
+
+    // Número de ids de "sorted" que también están en "other" (ambos ordenados y sin repetir), sin reservar memoria
+    public static int intersectionSize(int[] sorted, int[] other) {
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < sorted.length && j < other.length) {
+            if (sorted[i] == other[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (sorted[i] < other[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private void load(Collection<String> names) {
+        for (SkillTerm term : skillTermRepository.findByNameIn(names)) {
+            ids.put(term.getName(), term.getId());
+        }
+    }
+
+    // Filas "canónico,sinónimo|sinónimo": crea los términos que falten y apunta los sinónimos al canónico
+    private int loadSynonyms() {
+        int grouped = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ClassPathResource(SYNONYMS_CSV).getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] row = line.split(",", 2);
+                String canonical = normalize(row[0].trim());
+                List<String> synonyms = new ArrayList<>();
+                for (String synonym : row[1].split("\\|")) {
+                    if (!synonym.isBlank()) {
+                        synonyms.add(normalize(synonym.trim()));
+                    }
+                }
+                List<String> names = new ArrayList<>(synonyms);
+                names.add(canonical);
+                resolve(names);
+                grouped += skillTermRepository.updateCanonicalId(synonyms, ids.get(canonical));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo " + SYNONYMS_CSV + ": " + e.getMessage(), e);
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,58 @@
+package com.clipers.clipers.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estrategia basada en habilidades: proporción de skills distintas de la vacante que tiene el candidato
+ */
+@Component
+@Order(1)
+public class SkillMatchStrategy implements MatchStrategy {
+
+    private final double weight;
+
+    @Autowired
+    public SkillMatchStrategy(@Value("${matching.strategy.skills.weight:0.5}") double weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public String getName() {
+        return "skills";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public double score(Input input) {
+        if (!input.candidateHasSkills()) {
+            return 0.0;
+        }
+
+        if (input.getJobSkillCount() == 0) {
+            return 0.5; // Score neutro si el trabajo no especifica habilidades
+        }
+
+        // Skills distintas de la vacante que también tiene el candidato
+        return (double) input.getMatchedSkillCount() / input.getJobSkillCount();
+    }
+
+    @Override
+    public void explain(double score, StringBuilder explanation) {
+        if (score >= 0.8) {
+            explanation.append("- Excelente coincidencia de habilidades\n");
+        } else if (score >= 0.6) {
+            explanation.append("- Buena coincidencia de habilidades\n");
+        } else if (score >= 0.3) {
+            explanation.append("- Coincidencia parcial de habilidades\n");
+        } else {
+            explanation.append("- Pocas habilidades coincidentes\n");
+        }
+    }
+}
@@ -151,7 +151,11 @@ public class UserService {
     }
 
     public List<UserDTO> searchUsers(String query) {
-        return userRepository.searchUsers(query)
+        String tsQuery = FullTextQuery.toPrefixQuery(query);
+        if (tsQuery == null) {
+            return List.of();
+        }
+        return userRepository.searchUsers(tsQuery)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -0,0 +1,197 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.VideoProcessingResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Caché de respuestas del microservicio indexada por el SHA-256 del video
+ * Nivel 1: LRU en memoria acotado por bytes (guarda el JSON, cada lectura devuelve una copia).
+ * Nivel 2: un archivo &lt;sha256&gt;.json por entrada en disco, que sobrevive a reinicios
+ */
+@Component
+public class VideoProcessingCache {
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("^[0-9a-f]{64}$");
+
+    private final ObjectMapper objectMapper;
+    private final Path cacheDir;
+    private final long maxMemoryBytes;
+    private final Duration diskTtl;
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReentrantLock memoryLock = new ReentrantLock();
+    private volatile long memoryBytes;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    @Autowired
+    public VideoProcessingCache(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${video.processing.cache.dir:./cache/video-processing}") String cacheDir,
+                                @Value("${video.processing.cache.memory-max-size:16MB}") DataSize memoryMaxSize,
+                                @Value("${video.processing.cache.disk-ttl-days:30}") long diskTtlDays) {
+        this.objectMapper = objectMapper;
+        this.cacheDir = Paths.get(cacheDir);
+        this.maxMemoryBytes = memoryMaxSize.toBytes();
+        this.diskTtl = Duration.ofDays(diskTtlDays);
+
+        this.memoryHits = Counter.builder("video.processing.cache.requests")
+                .tag("tier", "memory").tag("result", "hit").register(meterRegistry);
+        this.diskHits = Counter.builder("video.processing.cache.requests")
+                .tag("tier", "disk").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("video.processing.cache.requests")
+                .tag("tier", "none").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gauge("video.processing.cache.memory.bytes", this, cache -> cache.memoryBytes);
+        meterRegistry.gauge("video.processing.cache.memory.entries", memory, Map::size);
+    }
+
+    public Optional<VideoProcessingResponse> get(String contentHash) {
+        if (!isValidKey(contentHash)) {
+            return Optional.empty();
+        }
+
+        byte[] json = getFromMemory(contentHash);
+        if (json != null) {
+            memoryHits.increment();
+            return deserialize(contentHash, json);
+        }
+
+        json = readFromDisk(contentHash);
+        if (json != null) {
+            diskHits.increment();
+            putInMemory(contentHash, json);
+            return deserialize(contentHash, json);
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String contentHash, VideoProcessingResponse response) {
+        if (!isValidKey(contentHash) || response == null) {
+            return;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            putInMemory(contentHash, json);
+            writeToDisk(contentHash, json);
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar en caché el resultado del video " + contentHash + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Limpieza del nivel en disco: elimina entradas que no se han escrito en el TTL configurado
+     */
+    @Scheduled(fixedDelayString = "${video.processing.cache.cleanup-interval-ms:86400000}", initialDelayString = "${video.processing.cache.cleanup-initial-delay-ms:300000}")
+    public void evictExpiredDiskEntries() {
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(diskTtl));
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, "*.json")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error limpiando la caché de procesamiento de video: " + e.getMessage());
+        }
+        if (deleted > 0) {
+            System.out.println("Caché de procesamiento de video: " + deleted + " entradas expiradas eliminadas");
+        }
+    }
+
+    private byte[] getFromMemory(String contentHash) {
+        memoryLock.lock();
+        try {
+            return memory.get(contentHash);
+        } finally {
+            memoryLock.unlock();
+        }
+    }
+
+    private void putInMemory(String contentHash, byte[] json) {
+        if (json.length > maxMemoryBytes) {
+            return;
+        }
+        memoryLock.lock();
+        try {
+            byte[] previous = memory.put(contentHash, json);
+            memoryBytes += json.length - (previous != null ? previous.length : 0);
+            // Desaloja las entradas menos usadas hasta volver al límite de bytes
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        } finally {
+            memoryLock.unlock();
+        }
+    }
+
+    private byte[] readFromDisk(String contentHash) {
+        try {
+            return Files.readAllBytes(cacheDir.resolve(contentHash + ".json"));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("No se pudo leer la caché en disco para el video " + contentHash + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String contentHash, byte[] json) throws IOException {
+        Files.createDirectories(cacheDir);
+        // Escritura atómica: un lector nunca ve un JSON a medio escribir
+        Path tmpFile = cacheDir.resolve("." + contentHash + "-" + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(tmpFile, json);
+            Files.move(tmpFile, cacheDir.resolve(contentHash + ".json"),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    private Optional<VideoProcessingResponse> deserialize(String contentHash, byte[] json) {
+        try {
+            return Optional.of(objectMapper.readValue(json, VideoProcessingResponse.class));
+        } catch (IOException e) {
+            System.err.println("Resultado en caché ilegible para el video " + contentHash + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private boolean isValidKey(String contentHash) {
+        return contentHash != null && CONTENT_HASH.matcher(contentHash).matches();
+    }
+}
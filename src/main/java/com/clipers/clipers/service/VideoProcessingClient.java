@@ -0,0 +1,231 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.VideoProcessingResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cliente HTTP dedicado al microservicio de procesamiento de video
+ * Usa un único HttpClient del JDK (conexiones keep-alive reutilizadas, HTTP/2 si el servidor lo ofrece),
+ * timeouts de conexión y de respuesta, un límite de llamadas concurrentes y un circuit breaker.
+ * La API es asíncrona: mientras el microservicio transcribe no se ocupa ningún hilo
+ */
+@Component
+public class VideoProcessingClient {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final Semaphore permits;
+    private final CircuitBreaker circuitBreaker;
+    private final URI serviceUri;
+    private final Duration readTimeout;
+
+    @Autowired
+    public VideoProcessingClient(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${video.processing.service.url:https://micoservicioprocesarvideo.onrender.com/upload-video}") String serviceUrl,
+                                 @Value("${video.processing.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                 @Value("${video.processing.client.read-timeout-ms:180000}") long readTimeoutMs,
+                                 @Value("${video.processing.client.max-connections:8}") int maxConnections,
+                                 @Value("${video.processing.client.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                 @Value("${video.processing.client.circuit-breaker.open-seconds:30}") long openSeconds) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.serviceUri = URI.create(serviceUrl);
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.permits = new Semaphore(maxConnections);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofSeconds(openSeconds));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        meterRegistry.gauge("video.processing.client.in_flight", permits,
+                semaphore -> maxConnections - semaphore.availablePermits());
+        meterRegistry.gauge("video.processing.client.circuit_open", circuitBreaker,
+                breaker -> breaker.state.get() == CircuitState.CLOSED ? 0 : 1);
+    }
+
+    /**
+     * Envía el video al microservicio. El futuro falla con CircuitOpenException si el circuito
+     * está abierto o no quedan conexiones libres, sin llegar a hacer la llamada
+     */
+    public CompletableFuture<VideoProcessingResponse> processAsync(Path videoFile) {
+        if (!circuitBreaker.allowRequest()) {
+            return CompletableFuture.failedFuture(
+                    new CircuitOpenException("Circuito abierto para el microservicio de procesamiento"));
+        }
+        if (!permits.tryAcquire()) {
+            circuitBreaker.releaseTrial();
+            return CompletableFuture.failedFuture(
+                    new CircuitOpenException("Sin conexiones libres hacia el microservicio de procesamiento"));
+        }
+
+        HttpRequest request;
+        try {
+            request = buildMultipartRequest(videoFile);
+        } catch (IOException e) {
+            permits.release();
+            circuitBreaker.releaseTrial();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        System.out.println("=== LLAMANDO AL MICROSERVICIO === " + serviceUri + " archivo: " + videoFile);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::parseResponse)
+                .whenComplete((response, error) -> {
+                    permits.release();
+                    if (error == null) {
+                        circuitBreaker.recordSuccess();
+                    } else {
+                        circuitBreaker.recordFailure();
+                    }
+                    sample.stop(latencyTimer(error == null ? "success" : "error"));
+                });
+    }
+
+    /**
+     * true si processAsync dejaría salir una llamada ahora: circuito cerrado, o abierto con la espera ya
+     * cumplida (la llamada sería la de prueba). No cambia el estado del circuito
+     */
+    public boolean isAcceptingCalls() {
+        return circuitBreaker.wouldAllowRequest();
+    }
+
+    private HttpRequest buildMultipartRequest(Path videoFile) throws FileNotFoundException {
+        String boundary = "----clipers-" + UUID.randomUUID();
+        String fileName = videoFile.getFileName().toString().replace("\"", "");
+        String preamble = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n";
+        String epilogue = "\r\n--" + boundary + "--\r\n";
+
+        // El archivo se envía en streaming desde disco, sin cargarlo en memoria
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofString(preamble, StandardCharsets.UTF_8),
+                HttpRequest.BodyPublishers.ofFile(videoFile),
+                HttpRequest.BodyPublishers.ofString(epilogue, StandardCharsets.UTF_8));
+
+        return HttpRequest.newBuilder(serviceUri)
+                .timeout(readTimeout)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(body)
+                .build();
+    }
+
+    private VideoProcessingResponse parseResponse(HttpResponse<byte[]> response) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            System.err.println("❌ Error en microservicio: " + response.statusCode());
+            throw new VideoProcessingException("El microservicio respondió con estado " + response.statusCode());
+        }
+        try {
+            VideoProcessingResponse body = objectMapper.readValue(response.body(), VideoProcessingResponse.class);
+            System.out.println("✅ Microservicio respondió exitosamente (" + response.version() + ")");
+            return body;
+        } catch (IOException e) {
+            throw new VideoProcessingException("Respuesta inválida del microservicio: " + e.getMessage());
+        }
+    }
+
+    private Timer latencyTimer(String outcome) {
+        return Timer.builder("video.processing.client.latency")
+                .description("Latencia de las llamadas al microservicio de procesamiento de video")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Circuit breaker por fallos consecutivos: tras N fallos se abre durante un tiempo,
+     * luego deja pasar una sola llamada de prueba (HALF_OPEN) que decide si se cierra o vuelve a abrir
+     */
+    private static class CircuitBreaker {
+        private final int failureThreshold;
+        private final long openNanos;
+        private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.CLOSED);
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong openedAt = new AtomicLong();
+
+        CircuitBreaker(int failureThreshold, Duration openDuration) {
+            this.failureThreshold = failureThreshold;
+            this.openNanos = openDuration.toNanos();
+        }
+
+        boolean allowRequest() {
+            CircuitState current = state.get();
+            if (current == CircuitState.CLOSED) {
+                return true;
+            }
+            if (current == CircuitState.OPEN && System.nanoTime() - openedAt.get() >= openNanos) {
+                return state.compareAndSet(CircuitState.OPEN, CircuitState.HALF_OPEN);
+            }
+            return false;
+        }
+
+        // Como allowRequest pero sin pasar a HALF_OPEN: no reserva la llamada de prueba
+        boolean wouldAllowRequest() {
+            CircuitState current = state.get();
+            return current == CircuitState.CLOSED
+                    || (current == CircuitState.OPEN && System.nanoTime() - openedAt.get() >= openNanos);
+        }
+
+        // La llamada de prueba no llegó a salir: otro llamador puede intentarlo
+        void releaseTrial() {
+            state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.OPEN);
+        }
+
+        void recordSuccess() {
+            consecutiveFailures.set(0);
+            state.set(CircuitState.CLOSED);
+        }
+
+        void recordFailure() {
+            if (state.get() == CircuitState.HALF_OPEN
+                    || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                openedAt.set(System.nanoTime());
+                state.set(CircuitState.OPEN);
+                System.err.println("Circuito abierto hacia el microservicio de procesamiento de video");
+            }
+        }
+    }
+
+    public static class VideoProcessingException extends RuntimeException {
+        public VideoProcessingException(String message) {
+            super(message);
+        }
+    }
+
+    // La llamada no se realizó; el Cliper puede volver a la cola sin consumir un intento
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+}
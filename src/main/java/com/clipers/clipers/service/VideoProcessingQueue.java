@@ -0,0 +1,190 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.VideoProcessingResponse;
+import com.clipers.clipers.entity.Cliper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cola persistente de procesamiento de video
+ * La tabla clipers actúa como cola: UPLOADED -> PROCESSING -> DONE/FAILED.
+ * Cada reclamo toma un lease (visibility timeout); si el worker muere, el lease vence
+ * y el Cliper vuelve a ser reclamable, incluso tras reiniciar la aplicación.
+ * Los fallos se reprograman con backoff (CliperRetryScheduler) hasta agotar los intentos
+ * Con el circuito del microservicio abierto no se reclama nada hasta que toque la llamada de prueba
+ * Métricas: gauges video.processing.queue.in_flight y video.processing.queue.retries_in_flight
+ */
+@Component
+public class VideoProcessingQueue {
+
+    private final CliperService cliperService;
+    private final VideoProcessingClient videoProcessingClient;
+    private final TaskExecutor executor;
+    private final CliperRetryScheduler retryScheduler;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger retriesInFlight = new AtomicInteger();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    @Value("${video.processing.workers:4}")
+    private int workers;
+
+    @Value("${video.processing.visibility-timeout-seconds:600}")
+    private long visibilityTimeoutSeconds;
+
+    @Value("${video.processing.max-attempts:3}")
+    private int maxAttempts;
+
+    @Autowired
+    public VideoProcessingQueue(CliperService cliperService,
+                                VideoProcessingClient videoProcessingClient,
+                                CliperRetryScheduler retryScheduler,
+                                @Qualifier("videoProcessingExecutor") TaskExecutor executor,
+                                MeterRegistry meterRegistry) {
+        this.cliperService = cliperService;
+        this.videoProcessingClient = videoProcessingClient;
+        this.retryScheduler = retryScheduler;
+        this.executor = executor;
+        meterRegistry.gauge("video.processing.queue.in_flight", inFlight);
+        meterRegistry.gauge("video.processing.queue.retries_in_flight", retriesInFlight);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCliperUploaded(CliperService.CliperUploadedEvent event) {
+        dispatch();
+    }
+
+    /**
+     * Recuperación tras reinicio: los Clipers que quedaron en PROCESSING se reclaman
+     * en cuanto vence su lease; los que ya agotaron intentos pasan a FAILED
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        System.out.println("Cola de procesamiento de video iniciada con " + workers + " workers");
+        dispatch();
+    }
+
+    @Scheduled(fixedDelayString = "${video.processing.poll-interval-ms:5000}")
+    public void poll() {
+        dispatch();
+    }
+
+    private void dispatch() {
+        dispatchLock.lock();
+        try {
+            int failed = cliperService.failExpiredProcessing(maxAttempts);
+            if (failed > 0) {
+                System.err.println("Clipers marcados como FAILED tras agotar " + maxAttempts + " intentos: " + failed);
+            }
+
+            // Reclamar con el circuito abierto solo tomaría leases para devolverlos sin llamar al microservicio
+            if (!videoProcessingClient.isAcceptingCalls()) {
+                return;
+            }
+
+            // Primero los reintentos vencidos, limitados para que no desplacen a las subidas nuevas
+            int retrySlots = Math.min(workers - inFlight.get(),
+                    retryScheduler.getMaxInFlightRetries() - retriesInFlight.get());
+            if (retrySlots > 0) {
+                for (String cliperId : cliperService.findRetryableCliperIds(retrySlots)) {
+                    claimAndSubmit(cliperId, true);
+                }
+            }
+
+            int free = workers - inFlight.get();
+            if (free > 0) {
+                for (String cliperId : cliperService.findClaimableCliperIds(free)) {
+                    claimAndSubmit(cliperId, false);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error despachando la cola de procesamiento de video: " + e.getMessage());
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private void claimAndSubmit(String cliperId, boolean retry) {
+        LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(visibilityTimeoutSeconds);
+        if (!cliperService.claimForProcessing(cliperId, leaseUntil, maxAttempts)) {
+            return;
+        }
+        inFlight.incrementAndGet();
+        if (retry) {
+            retriesInFlight.incrementAndGet();
+        }
+        try {
+            executor.execute(() -> process(cliperId, retry));
+        } catch (RuntimeException e) {
+            // El lease vencerá y el Cliper se volverá a reclamar
+            release(retry);
+            throw e;
+        }
+    }
+
+    private void process(String cliperId, boolean retry) {
+        int attempt = 0;
+        try {
+            Cliper cliper = cliperService.findById(cliperId).orElse(null);
+            if (cliper == null) {
+                release(retry);
+                return;
+            }
+            attempt = cliper.getProcessingAttempts();
+
+            if (cliper.getSourceFilePath() == null) {
+                cliperService.completeProcessing(cliperId, attempt, null);
+                release(retry);
+                return;
+            }
+
+            // El hilo del pool se libera mientras el microservicio trabaja; el resultado vuelve al pool
+            int claimedAttempt = attempt;
+            videoProcessingClient.processAsync(Paths.get(cliper.getSourceFilePath()))
+                    .whenCompleteAsync((response, error) -> finish(cliperId, claimedAttempt, retry, response, error), executor);
+        } catch (Exception e) {
+            finish(cliperId, attempt, retry, null, e);
+        }
+    }
+
+    private void finish(String cliperId, int attempt, boolean retry, VideoProcessingResponse response, Throwable error) {
+        try {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof VideoProcessingClient.CircuitOpenException) {
+                // La llamada no salió: el Cliper vuelve a la cola sin gastar el intento
+                cliperService.releaseProcessing(cliperId, attempt);
+            } else if (cause != null || response == null) {
+                String reason = cause != null ? cause.getMessage() : "el microservicio no devolvió resultado";
+                cliperService.failProcessing(cliperId, attempt, reason, retryScheduler.nextAttemptAt(attempt));
+            } else {
+                cliperService.completeProcessing(cliperId, attempt, response);
+            }
+        } catch (Exception e) {
+            System.err.println("Error registrando el resultado del cliper " + cliperId + ": " + e.getMessage());
+        } finally {
+            release(retry);
+        }
+    }
+
+    private void release(boolean retry) {
+        inFlight.decrementAndGet();
+        if (retry) {
+            retriesInFlight.decrementAndGet();
+        }
+    }
+}
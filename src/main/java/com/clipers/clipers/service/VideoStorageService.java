@@ -0,0 +1,326 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.VideoBlob;
+import com.clipers.clipers.repository.VideoBlobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Almacenamiento de videos direccionado por contenido
+ * Escribe el cuerpo de la petición con FileChannel.transferFrom calculando el SHA-256 al vuelo
+ * (fuera de transacción) y después, en la transacción que crea el Cliper, guarda el archivo como
+ * uploads/videos/&lt;sha256&gt;.&lt;ext&gt;. Los videos repetidos se detectan al subirlos y reutilizan
+ * el mismo archivo.
+ * Los blobs sin referencias se eliminan en segundo plano tras un periodo de gracia
+ */
+@Service
+public class VideoStorageService {
+
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+    private static final int LOCK_STRIPES = 64;
+    private static final Pattern BLOB_FILE_NAME = Pattern.compile("^[0-9a-f]{64}\\.[a-z0-9]+$");
+
+    private final VideoBlobRepository videoBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] hashLocks = new ReentrantLock[LOCK_STRIPES];
+
+    @Value("${file.upload.dir:./uploads}")
+    private String uploadDir;
+
+    @Value("${file.upload.base.url:http://localhost:8080}")
+    private String fileUploadBaseUrl;
+
+    @Value("${spring.servlet.multipart.max-file-size:50MB}")
+    private DataSize maxVideoSize;
+
+    @Value("${video.storage.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+
+    @Autowired
+    public VideoStorageService(VideoBlobRepository videoBlobRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.videoBlobRepository = videoBlobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            hashLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Escribe el stream en un archivo temporal calculando su SHA-256 al vuelo. No toca la base de datos:
+     * se invoca fuera de cualquier transacción, así una subida lenta no retiene una conexión JDBC
+     */
+    public StagedVideo stage(InputStream videoStream, String originalFilename) {
+        Path tmpDir = Paths.get(uploadDir, "tmp");
+        Path tmpFile = tmpDir.resolve("upload-" + UUID.randomUUID() + ".part");
+
+        try {
+            Files.createDirectories(tmpDir);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = transfer(new DigestInputStream(videoStream, digest), tmpFile);
+            return new StagedVideo(tmpFile, HexFormat.of().formatHex(digest.digest()), size,
+                    extensionOf(originalFilename));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            deleteQuietly(tmpFile);
+            throw new RuntimeException("Error al guardar el archivo de video: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Suma una referencia al blob del video preparado y lo deja en su ubicación definitiva.
+     * Debe invocarse dentro de la transacción, corta, que crea el Cliper que lo referencia
+     */
+    public StoredVideo store(StagedVideo staged) {
+        Path videosDir = Paths.get(uploadDir, "videos");
+        String sha256 = staged.getSha256();
+
+        ReentrantLock lock = lockFor(sha256);
+        lock.lock();
+        try {
+            Files.createDirectories(videosDir);
+            videoBlobRepository.acquire(sha256, sha256 + staged.getExtension(), staged.getSize());
+            String fileName = videoBlobRepository.findFileName(sha256);
+            Path target = videosDir.resolve(fileName);
+
+            boolean duplicate = Files.exists(target);
+            if (duplicate) {
+                // Mismo contenido ya almacenado: no se guarda una segunda copia. Se renueva la fecha del
+                // archivo porque el lock se suelta antes del commit: si aún no tiene fila confirmada
+                // (p. ej. quedó de una subida revertida), el periodo de gracia impide que la recolección
+                // de archivos sin fila lo borre antes de que esta transacción confirme la suya
+                Files.delete(staged.getPath());
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.move(staged.getPath(), target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredVideo(fileName, target, fileUploadBaseUrl + "/uploads/videos/" + fileName,
+                    sha256, staged.getSize(), duplicate);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar el archivo de video: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Borra el temporal de un video preparado que no llegó a guardarse (no hace nada si ya se movió)
+     */
+    public void discard(StagedVideo staged) {
+        if (staged != null) {
+            deleteQuietly(staged.getPath());
+        }
+    }
+
+    /**
+     * Resta una referencia al blob; si llega a cero queda pendiente de recolección
+     */
+    public void release(String sha256) {
+        if (sha256 != null) {
+            videoBlobRepository.release(sha256, LocalDateTime.now());
+        }
+    }
+
+    public void releaseAll() {
+        videoBlobRepository.releaseAll(LocalDateTime.now());
+    }
+
+    /**
+     * Recolector de blobs huérfanos: corrige contadores, elimina blobs sin referencias
+     * tras el periodo de gracia y borra archivos de blob que no tienen fila asociada
+     */
+    @Scheduled(fixedDelayString = "${video.storage.gc-interval-ms:3600000}", initialDelayString = "${video.storage.gc-initial-delay-ms:60000}")
+    public void collectGarbage() {
+        try {
+            Integer reconciled = transactionTemplate.execute(status -> videoBlobRepository.reconcileReferenceCounts());
+            if (reconciled != null && reconciled > 0) {
+                System.out.println("Contadores de referencia corregidos en " + reconciled + " blobs de video");
+            }
+
+            LocalDateTime before = LocalDateTime.now().minusMinutes(gcGraceMinutes);
+            List<VideoBlob> orphans = videoBlobRepository.findOrphans(before, PageRequest.of(0, 100));
+            int deleted = 0;
+            for (VideoBlob orphan : orphans) {
+                if (deleteOrphan(orphan)) {
+                    deleted++;
+                }
+            }
+
+            deleted += deleteUntrackedFiles();
+            if (deleted > 0) {
+                System.out.println("Recolección de videos: " + deleted + " archivos eliminados");
+            }
+        } catch (Exception e) {
+            System.err.println("Error en la recolección de videos huérfanos: " + e.getMessage());
+        }
+    }
+
+    private boolean deleteOrphan(VideoBlob orphan) {
+        ReentrantLock lock = lockFor(orphan.getSha256());
+        lock.lock();
+        try {
+            Integer rows = transactionTemplate.execute(status -> videoBlobRepository.deleteIfOrphan(orphan.getSha256()));
+            if (rows == null || rows == 0) {
+                return false;
+            }
+            Files.deleteIfExists(Paths.get(uploadDir, "videos").resolve(orphan.getFileName()));
+            return true;
+        } catch (IOException e) {
+            System.err.println("No se pudo eliminar el video " + orphan.getFileName() + ": " + e.getMessage());
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Archivos de blob sin fila (p. ej. transacción revertida después de mover el archivo)
+    private int deleteUntrackedFiles() throws IOException {
+        Path videosDir = Paths.get(uploadDir, "videos");
+        if (!Files.isDirectory(videosDir)) {
+            return 0;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(gcGraceMinutes, ChronoUnit.MINUTES));
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(videosDir)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                if (!BLOB_FILE_NAME.matcher(fileName).matches()
+                        || Files.getLastModifiedTime(file).compareTo(cutoff) > 0) {
+                    continue;
+                }
+                String sha256 = fileName.substring(0, 64);
+                ReentrantLock lock = lockFor(sha256);
+                lock.lock();
+                try {
+                    if (!videoBlobRepository.existsById(sha256) && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private long transfer(InputStream source, Path target) throws IOException {
+        long maxBytes = maxVideoSize.toBytes();
+        try (ReadableByteChannel in = Channels.newChannel(source);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = out.transferFrom(in, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+                if (position > maxBytes) {
+                    throw new IOException("El video supera el tamaño máximo permitido de " + maxVideoSize.toMegabytes() + "MB");
+                }
+            }
+            return position;
+        }
+    }
+
+    private ReentrantLock lockFor(String sha256) {
+        return hashLocks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+
+    private String extensionOf(String originalFilename) {
+        if (originalFilename != null) {
+            String name = Paths.get(originalFilename).getFileName().toString().toLowerCase();
+            int dot = name.lastIndexOf('.');
+            if (dot >= 0 && dot < name.length() - 1) {
+                String extension = name.substring(dot + 1);
+                if (extension.matches("[a-z0-9]{1,8}")) {
+                    return "." + extension;
+                }
+            }
+        }
+        return ".mp4";
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("No se pudo eliminar el archivo parcial " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Video recibido en un archivo temporal, con su huella y tamaño, pendiente de guardarse
+     */
+    public static class StagedVideo {
+        private final Path path;
+        private final String sha256;
+        private final long size;
+        private final String extension;
+
+        public StagedVideo(Path path, String sha256, long size, String extension) {
+            this.path = path;
+            this.sha256 = sha256;
+            this.size = size;
+            this.extension = extension;
+        }
+
+        public Path getPath() { return path; }
+        public String getSha256() { return sha256; }
+        public long getSize() { return size; }
+        public String getExtension() { return extension; }
+    }
+
+    /**
+     * Resultado de guardar un video: archivo final, URL pública y huella del contenido
+     */
+    public static class StoredVideo {
+        private final String fileName;
+        private final Path path;
+        private final String url;
+        private final String sha256;
+        private final long size;
+        private final boolean duplicate;
+
+        public StoredVideo(String fileName, Path path, String url, String sha256, long size, boolean duplicate) {
+            this.fileName = fileName;
+            this.path = path;
+            this.url = url;
+            this.sha256 = sha256;
+            this.size = size;
+            this.duplicate = duplicate;
+        }
+
+        public String getFileName() { return fileName; }
+        public Path getPath() { return path; }
+        public String getUrl() { return url; }
+        public String getSha256() { return sha256; }
+        public long getSize() { return size; }
+        public boolean isDuplicate() { return duplicate; }
+    }
+}
@@ -0,0 +1,60 @@
+package com.clipers.clipers.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000);
+        FeedCursor cursor = new FeedCursor(createdAt, "0b5c6a7e-1f2d-4c3b-9a8e-7d6f5e4c3b2a");
+
+        FeedCursor decoded = FeedCursor.decode(cursor.encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(cursor.getId(), decoded.getId());
+    }
+
+    @Test
+    void keepsMicrosecondPrecisionAndWholeSeconds() {
+        LocalDateTime micros = LocalDateTime.of(2025, 1, 1, 0, 0, 0, 123_456_000);
+        LocalDateTime wholeMinute = LocalDateTime.of(2025, 1, 1, 12, 30);
+
+        assertEquals(micros, FeedCursor.decode(new FeedCursor(micros, "a").encode()).getCreatedAt());
+        assertEquals(wholeMinute, FeedCursor.decode(new FeedCursor(wholeMinute, "a").encode()).getCreatedAt());
+    }
+
+    @Test
+    void encodesAsUrlSafeBase64WithoutPadding() {
+        String encoded = new FeedCursor(LocalDateTime.of(2025, 6, 30, 23, 59, 59), "id?/+").encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void idMayContainTheSeparator() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 30, 23, 59, 59);
+
+        assertEquals("a|b", FeedCursor.decode(new FeedCursor(createdAt, "a|b").encode()).getId());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encode("sin separador")));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encode("ayer|id")));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(null));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
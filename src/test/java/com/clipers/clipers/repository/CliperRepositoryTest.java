@@ -0,0 +1,132 @@
+package com.clipers.clipers.repository;
+
+import com.clipers.clipers.entity.Cliper;
+import com.clipers.clipers.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Reclamo de la cola de procesamiento contra PostgreSQL real: un cliper se reclama una sola vez por lease,
+ * respeta el backoff y el máximo de intentos, y los leases vencidos sin intentos restantes pasan a FAILED
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class CliperRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private CliperRepository cliperRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("ana@example.com");
+        user.setPassword("secret");
+        user.setFirstName("Ana");
+        user.setLastName("Pérez");
+        entityManager.persist(user);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void claimsNewCliperOnceWhileLeaseIsValid() {
+        Cliper cliper = persist(Cliper.Status.UPLOADED, 0, null, null);
+
+        assertEquals(1, claim(cliper, now));
+        Cliper claimed = reload(cliper);
+        assertEquals(Cliper.Status.PROCESSING, claimed.getStatus());
+        assertEquals(1, claimed.getProcessingAttempts());
+        assertEquals(now.plusMinutes(5).withNano(0), claimed.getLeaseExpiresAt().withNano(0));
+
+        assertEquals(0, claim(cliper, now.plusMinutes(1)));
+    }
+
+    @Test
+    void reclaimsProcessingCliperWhenLeaseExpired() {
+        Cliper cliper = persist(Cliper.Status.PROCESSING, 1, now.minusMinutes(1), null);
+
+        assertEquals(1, claim(cliper, now));
+        assertEquals(2, reload(cliper).getProcessingAttempts());
+    }
+
+    @Test
+    void waitsForBackoffBeforeRetrying() {
+        Cliper cliper = persist(Cliper.Status.UPLOADED, 1, null, now.plusMinutes(2));
+
+        assertEquals(0, claim(cliper, now));
+        assertEquals(1, claim(cliper, now.plusMinutes(3)));
+    }
+
+    @Test
+    void doesNotClaimBeyondMaxAttempts() {
+        Cliper cliper = persist(Cliper.Status.PROCESSING, MAX_ATTEMPTS, now.minusMinutes(1), null);
+
+        assertEquals(0, claim(cliper, now));
+        assertEquals(MAX_ATTEMPTS, reload(cliper).getProcessingAttempts());
+    }
+
+    @Test
+    void failsOnlyExpiredLeasesWithoutAttemptsLeft() {
+        Cliper exhausted = persist(Cliper.Status.PROCESSING, MAX_ATTEMPTS, now.minusMinutes(1), null);
+        Cliper retryable = persist(Cliper.Status.PROCESSING, 1, now.minusMinutes(1), null);
+        Cliper running = persist(Cliper.Status.PROCESSING, MAX_ATTEMPTS, now.plusMinutes(1), null);
+        entityManager.flush();
+
+        int failed = cliperRepository.failExpiredProcessing(Cliper.Status.PROCESSING, Cliper.Status.FAILED,
+                now, MAX_ATTEMPTS);
+        entityManager.clear();
+
+        assertEquals(1, failed);
+        Cliper failedCliper = reload(exhausted);
+        assertEquals(Cliper.Status.FAILED, failedCliper.getStatus());
+        assertNull(failedCliper.getLeaseExpiresAt());
+        assertEquals(Cliper.Status.PROCESSING, reload(retryable).getStatus());
+        assertEquals(Cliper.Status.PROCESSING, reload(running).getStatus());
+    }
+
+    private Cliper persist(Cliper.Status status, int attempts, LocalDateTime leaseExpiresAt, LocalDateTime nextAttemptAt) {
+        Cliper cliper = new Cliper("Mi cliper", "Descripción", "/videos/cliper.mp4", 30, user);
+        cliper.setStatus(status);
+        cliper.setProcessingAttempts(attempts);
+        cliper.setLeaseExpiresAt(leaseExpiresAt);
+        cliper.setNextAttemptAt(nextAttemptAt);
+        return entityManager.persist(cliper);
+    }
+
+    private int claim(Cliper cliper, LocalDateTime at) {
+        entityManager.flush();
+        int claimed = cliperRepository.claimForProcessing(cliper.getId(), Cliper.Status.UPLOADED,
+                Cliper.Status.PROCESSING, at, at.plusMinutes(5), MAX_ATTEMPTS);
+        entityManager.clear();
+        return claimed;
+    }
+
+    private Cliper reload(Cliper cliper) {
+        return entityManager.find(Cliper.class, cliper.getId());
+    }
+}
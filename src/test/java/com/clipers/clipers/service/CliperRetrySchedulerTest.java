@@ -0,0 +1,99 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.Cliper;
+import com.clipers.clipers.repository.CliperRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CliperRetrySchedulerTest {
+
+    private CliperRepository cliperRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CliperRetryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        cliperRepository = mock(CliperRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new CliperRetryScheduler(cliperRepository, meterRegistry);
+        ReflectionTestUtils.setField(scheduler, "maxAttempts", 3);
+        ReflectionTestUtils.setField(scheduler, "baseDelaySeconds", 30L);
+        ReflectionTestUtils.setField(scheduler, "maxDelaySeconds", 900L);
+    }
+
+    @Test
+    void backoffDoublesPerAttemptWithinEqualJitter() {
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            long fullMillis = Duration.ofSeconds(30L << (attempt - 1)).toMillis();
+            for (int i = 0; i < 200; i++) {
+                long millis = scheduler.backoff(attempt).toMillis();
+                assertTrue(millis >= fullMillis / 2 && millis <= fullMillis,
+                        "intento " + attempt + ": " + millis + " ms fuera de [" + fullMillis / 2 + ", " + fullMillis + "]");
+            }
+        }
+    }
+
+    @Test
+    void backoffIsCappedAtMaxDelay() {
+        for (int attempt : new int[] {6, 20, 64, Integer.MAX_VALUE}) {
+            long millis = scheduler.backoff(attempt).toMillis();
+            assertTrue(millis >= 450_000 && millis <= 900_000, "intento " + attempt + ": " + millis + " ms");
+        }
+    }
+
+    @Test
+    void backoffTreatsNonPositiveAttemptsAsFirst() {
+        long millis = scheduler.backoff(0).toMillis();
+        assertTrue(millis >= 15_000 && millis <= 30_000);
+    }
+
+    @Test
+    void nextAttemptAtIsInTheFutureWhileAttemptsRemain() {
+        LocalDateTime before = LocalDateTime.now();
+        LocalDateTime next = scheduler.nextAttemptAt(1);
+
+        assertNotNull(next);
+        assertTrue(!next.isBefore(before.plusSeconds(15)) && !next.isAfter(LocalDateTime.now().plusSeconds(30)));
+    }
+
+    @Test
+    void nextAttemptAtIsNullOnceAttemptsAreExhausted() {
+        assertNull(scheduler.nextAttemptAt(3));
+        assertNull(scheduler.nextAttemptAt(4));
+    }
+
+    @Test
+    void refreshMetricsPublishesDepthAndOldestAge() {
+        when(cliperRepository.countScheduledRetries(Cliper.Status.UPLOADED)).thenReturn(5L);
+        when(cliperRepository.findOldestScheduledRetry(Cliper.Status.UPLOADED))
+                .thenReturn(LocalDateTime.now().minusSeconds(120));
+
+        scheduler.refreshMetrics();
+
+        assertEquals(5.0, meterRegistry.get("video.processing.retry.queue.depth").gauge().value());
+        double age = meterRegistry.get("video.processing.retry.queue.oldest.age.seconds").gauge().value();
+        assertTrue(age >= 120 && age < 130);
+    }
+
+    @Test
+    void refreshMetricsReportsZeroAgeWithoutRetries() {
+        when(cliperRepository.countScheduledRetries(Cliper.Status.UPLOADED)).thenReturn(0L);
+        when(cliperRepository.findOldestScheduledRetry(Cliper.Status.UPLOADED)).thenReturn(null);
+
+        scheduler.refreshMetrics();
+
+        assertEquals(0.0, meterRegistry.get("video.processing.retry.queue.oldest.age.seconds").gauge().value());
+    }
+}
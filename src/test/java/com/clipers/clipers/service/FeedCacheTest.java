@@ -0,0 +1,158 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.FeedPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesHeadPagesFromCacheAfterFirstLoad() {
+        FeedCache cache = cache(DataSize.ofKilobytes(64), 60_000);
+        CountingLoader loader = new CountingLoader("a");
+
+        FeedCache.Page first = cache.getOrLoad("0:20", 0, 20, loader);
+        FeedCache.Page second = cache.getOrLoad("0:20", 0, 20, loader);
+
+        assertEquals(1, loader.calls.get());
+        assertArrayEquals(first.getJson(), second.getJson());
+        assertEquals(1.0, meterRegistry.get("feed.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("feed.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void pagesBeyondTheHeadAreNeverCached() {
+        FeedCache cache = cache(DataSize.ofKilobytes(64), 60_000);
+        CountingLoader loader = new CountingLoader("deep");
+
+        cache.getOrLoad("100:20", 100, 20, loader);
+        cache.getOrLoad("100:20", 100, 20, loader);
+
+        assertEquals(2, loader.calls.get());
+        assertEquals(0.0, meterRegistry.get("feed.cache.entries").gauge().value());
+    }
+
+    @Test
+    void invalidateDropsEveryPage() {
+        FeedCache cache = cache(DataSize.ofKilobytes(64), 60_000);
+        CountingLoader loader = new CountingLoader("a");
+        cache.getOrLoad("0:20", 0, 20, loader);
+
+        cache.onFeedChanged(null);
+        cache.getOrLoad("0:20", 0, 20, loader);
+
+        assertEquals(2, loader.calls.get());
+        assertEquals(1.0, meterRegistry.get("feed.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void pageLoadedAcrossAnInvalidationIsNotStored() {
+        FeedCache cache = cache(DataSize.ofKilobytes(64), 60_000);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<FeedPage> racingLoader = () -> {
+            // Un post se confirma mientras se calcula la página
+            if (calls.incrementAndGet() == 1) {
+                cache.invalidate();
+            }
+            return page("a");
+        };
+
+        cache.getOrLoad("0:20", 0, 20, racingLoader);
+        cache.getOrLoad("0:20", 0, 20, racingLoader);
+        cache.getOrLoad("0:20", 0, 20, racingLoader);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void expiredPagesAreReloaded() {
+        FeedCache cache = cache(DataSize.ofKilobytes(64), 0);
+        CountingLoader loader = new CountingLoader("a");
+
+        cache.getOrLoad("0:20", 0, 20, loader);
+        cache.getOrLoad("0:20", 0, 20, loader);
+
+        assertEquals(2, loader.calls.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPagesToStayWithinBytes() {
+        int pageBytes = json(page("a")).length;
+        FeedCache cache = cache(DataSize.ofBytes(pageBytes * 2L + pageBytes / 2), 60_000);
+        CountingLoader first = new CountingLoader("a");
+        CountingLoader second = new CountingLoader("b");
+        CountingLoader third = new CountingLoader("c");
+
+        cache.getOrLoad("0:20", 0, 20, first);
+        cache.getOrLoad("20:20", 20, 20, second);
+        cache.getOrLoad("0:20", 0, 20, first);
+        cache.getOrLoad("40:20", 40, 20, third);
+
+        // La segunda es la menos usada: es la única que se vuelve a cargar
+        cache.getOrLoad("0:20", 0, 20, first);
+        cache.getOrLoad("40:20", 40, 20, third);
+        cache.getOrLoad("20:20", 20, 20, second);
+        assertEquals(1, first.calls.get());
+        assertEquals(1, third.calls.get());
+        assertEquals(2, second.calls.get());
+        assertTrue(meterRegistry.get("feed.cache.bytes").gauge().value() <= pageBytes * 2L + pageBytes / 2);
+    }
+
+    @Test
+    void pagesLargerThanTheCacheAreServedButNotStored() {
+        FeedCache cache = cache(DataSize.ofBytes(10), 60_000);
+        CountingLoader loader = new CountingLoader("a");
+
+        cache.getOrLoad("0:20", 0, 20, loader);
+        cache.getOrLoad("0:20", 0, 20, loader);
+
+        assertEquals(2, loader.calls.get());
+        assertEquals(0.0, meterRegistry.get("feed.cache.bytes").gauge().value());
+    }
+
+    private FeedCache cache(DataSize maxSize, long ttlMillis) {
+        return new FeedCache(new ObjectMapper(), meterRegistry, 100, maxSize, ttlMillis);
+    }
+
+    // Página sin posts; el cursor le da un tamaño fijo conocido
+    private static FeedPage page(String marker) {
+        FeedPage page = new FeedPage(List.of(), true);
+        page.setNextCursor(marker.repeat(64));
+        return page;
+    }
+
+    private static byte[] json(FeedPage page) {
+        try {
+            return new ObjectMapper().writeValueAsBytes(page);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CountingLoader implements Supplier<FeedPage> {
+        private final String marker;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingLoader(String marker) {
+            this.marker = marker;
+        }
+
+        @Override
+        public FeedPage get() {
+            calls.incrementAndGet();
+            return page(marker);
+        }
+    }
+}
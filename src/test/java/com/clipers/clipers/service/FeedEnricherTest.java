@@ -0,0 +1,53 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.dto.FeedPage;
+import com.clipers.clipers.repository.CommentRepository;
+import com.clipers.clipers.repository.PostLikeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedEnricherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PostLikeRepository postLikeRepository = mock(PostLikeRepository.class);
+    private final FeedEnricher enricher = new FeedEnricher(mock(CommentRepository.class), postLikeRepository, objectMapper);
+
+    @Test
+    void servesTheCachedBytesUntouchedWithoutLikes() throws Exception {
+        byte[] page = objectMapper.writeValueAsBytes(new FeedPage(List.of(), true));
+
+        assertSame(page, enricher.appendLikedPostIds(page, List.of()));
+    }
+
+    @Test
+    void appendsLikedPostIdsAsATopLevelField() throws Exception {
+        FeedPage feedPage = new FeedPage(List.of(), true);
+        feedPage.setNextCursor("abc");
+        byte[] page = objectMapper.writeValueAsBytes(feedPage);
+
+        JsonNode json = objectMapper.readTree(enricher.appendLikedPostIds(page, List.of("p1", "p3")));
+
+        assertEquals("abc", json.path("nextCursor").asText());
+        assertTrue(json.path("hasMore").asBoolean());
+        assertEquals("[\"p1\",\"p3\"]", json.path("likedPostIds").toString());
+    }
+
+    @Test
+    void likedPostIdsFollowThePageOrder() {
+        when(postLikeRepository.findLikedPostIds(eq("viewer"), any())).thenReturn(List.of("p3", "p1"));
+
+        assertEquals(List.of("p1", "p3"), enricher.likedInOrder("viewer", List.of("p1", "p2", "p3")));
+        assertTrue(enricher.likedInOrder(null, List.of("p1")).isEmpty());
+    }
+}
@@ -0,0 +1,44 @@
+package com.clipers.clipers.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FullTextQueryTest {
+
+    @Test
+    void everyWordBecomesARequiredPrefix() {
+        assertEquals("desarrollador:* & java:*", FullTextQuery.toPrefixQuery("Desarrollador Java"));
+    }
+
+    @Test
+    void keepsAccentedLettersAndDigits() {
+        assertEquals("diseñadora:* & gráfica:* & 3d:*", FullTextQuery.toPrefixQuery("Diseñadora gráfica 3D"));
+    }
+
+    @Test
+    void dropsTsqueryOperatorsAndPunctuation() {
+        assertEquals("c:* & sql:*", FullTextQuery.toPrefixQuery("c++ & (sql)"));
+        assertEquals("a:* & b:*", FullTextQuery.toPrefixQuery("a:* | !b'"));
+    }
+
+    @Test
+    void splitsEmailsLikeTheIndexedEmailColumn() {
+        // users.search_vector indexa el email con @ . - _ cambiados por espacios (SchemaExtensionsInitializer)
+        assertEquals("ana:* & perez:* & x:* & com:*", FullTextQuery.toPrefixQuery("ana.perez@x.com"));
+    }
+
+    @Test
+    void limitsTheNumberOfTerms() {
+        assertEquals("a:* & b:* & c:* & d:* & e:* & f:* & g:* & h:*",
+                FullTextQuery.toPrefixQuery("a b c d e f g h i j"));
+    }
+
+    @Test
+    void returnsNullWithoutSearchableWords() {
+        assertNull(FullTextQuery.toPrefixQuery(null));
+        assertNull(FullTextQuery.toPrefixQuery(""));
+        assertNull(FullTextQuery.toPrefixQuery("  !?&|  "));
+    }
+}
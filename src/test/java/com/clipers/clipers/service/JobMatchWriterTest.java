@@ -0,0 +1,163 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.Company;
+import com.clipers.clipers.entity.Job;
+import com.clipers.clipers.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upsert y borrado por lotes de JobMatchWriter contra PostgreSQL real (ON CONFLICT y CTE con DELETE/INSERT)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JobMatchWriter.class)
+@Testcontainers(disabledWithoutDocker = true)
+class JobMatchWriterTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JobMatchWriter jobMatchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private String jobId;
+    private String ana;
+    private String luis;
+
+    @BeforeEach
+    void setUp() {
+        // En la aplicación lo crea SchemaExtensionsInitializer; el upsert lo necesita como destino del ON CONFLICT
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_job_matches_job_user ON job_matches (job_id, user_id)");
+
+        User owner = persistUser("empresa@example.com", "Acme", "Company");
+        Company company = entityManager.persist(new Company("Acme", "Software", "Tecnología", "Madrid", owner));
+        jobId = entityManager.persist(new Job("Backend", "Java y SQL", "Madrid", Job.JobType.FULL_TIME, company)).getId();
+        ana = persistUser("ana@example.com", "Ana", "Pérez").getId();
+        luis = persistUser("luis@example.com", "Luis", "García").getId();
+        entityManager.flush();
+    }
+
+    @Test
+    void insertsMatchesWithTheirSkills() {
+        JobMatchWriter.Batch batch = jobMatchWriter.open();
+        batch.add(jobId, ana, 0.8, "Buen match", List.of("java", "sql"));
+        batch.add(jobId, luis, 0.5, "Match parcial", null);
+        batch.flush();
+
+        assertEquals(2, batch.getWritten());
+        assertEquals(Map.of(ana, 0.8, luis, 0.5), jobMatchWriter.findScoresByJob(jobId));
+        assertEquals(Set.of("java", "sql"), skillsOf(ana));
+        assertEquals(Set.of(), skillsOf(luis));
+    }
+
+    @Test
+    void upsertKeepsTheRowAndReplacesScoreAndSkills() {
+        JobMatchWriter.Batch first = jobMatchWriter.open();
+        first.add(jobId, ana, 0.8, "Buen match", List.of("java", "sql"));
+        first.flush();
+        String matchId = matchIdOf(ana);
+
+        JobMatchWriter.Batch second = jobMatchWriter.open();
+        second.add(jobId, ana, 0.9, "Mejor match", List.of("kotlin"));
+        second.flush();
+
+        assertEquals(matchId, matchIdOf(ana));
+        assertEquals(1, countMatches());
+        assertEquals(0.9, jobMatchWriter.findScoresByJob(jobId).get(ana));
+        assertEquals("Mejor match", jdbcTemplate.queryForObject(
+                "SELECT explanation FROM job_matches WHERE id = ?", String.class, matchId));
+        assertEquals(Set.of("kotlin"), skillsOf(ana));
+    }
+
+    @Test
+    void removeDeletesOnlyThatPairAndItsSkills() {
+        JobMatchWriter.Batch batch = jobMatchWriter.open();
+        batch.add(jobId, ana, 0.8, "Buen match", List.of("java"));
+        batch.add(jobId, luis, 0.5, "Match parcial", List.of("sql"));
+        batch.flush();
+        String removedId = matchIdOf(luis);
+
+        JobMatchWriter.Batch removal = jobMatchWriter.open();
+        removal.remove(jobId, luis);
+        removal.flush();
+
+        assertEquals(Map.of(ana, 0.8), jobMatchWriter.findScoresByJob(jobId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM job_match_skills WHERE job_match_id = ?", Integer.class, removedId));
+        assertEquals(Set.of("java"), skillsOf(ana));
+    }
+
+    @Test
+    void deleteByJobIdRemovesEveryMatchOfTheJob() {
+        JobMatchWriter.Batch batch = jobMatchWriter.open();
+        batch.add(jobId, ana, 0.8, "Buen match", List.of("java"));
+        batch.add(jobId, luis, 0.5, "Match parcial", List.of("sql"));
+        batch.flush();
+
+        assertEquals(2, jobMatchWriter.deleteByJobId(jobId));
+        assertEquals(0, countMatches());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_match_skills", Integer.class));
+    }
+
+    @Test
+    void flushesAutomaticallyWhenBatchIsFull() {
+        JobMatchWriter.Batch batch = jobMatchWriter.open();
+        for (int i = 0; i < 500; i++) {
+            batch.add(jobId, i % 2 == 0 ? ana : luis, i / 1000.0, "Match", List.of());
+        }
+
+        // matching.write.batch-size=500: el lote se volcó sin llamar a flush
+        assertEquals(500, batch.getWritten());
+        assertEquals(2, countMatches());
+        assertTrue(jobMatchWriter.findScoresByJob(jobId).get(luis) > jobMatchWriter.findScoresByJob(jobId).get(ana));
+    }
+
+    private User persistUser(String email, String firstName, String lastName) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return entityManager.persist(user);
+    }
+
+    private String matchIdOf(String userId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM job_matches WHERE job_id = ? AND user_id = ?",
+                String.class, jobId, userId);
+    }
+
+    private int countMatches() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_matches WHERE job_id = ?", Integer.class, jobId);
+    }
+
+    private Set<String> skillsOf(String userId) {
+        return Set.copyOf(jdbcTemplate.queryForList("SELECT s.matched_skill FROM job_match_skills s " +
+                "JOIN job_matches m ON m.id = s.job_match_id WHERE m.job_id = ? AND m.user_id = ?",
+                String.class, jobId, userId));
+    }
+}
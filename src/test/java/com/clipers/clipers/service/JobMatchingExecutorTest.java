@@ -0,0 +1,119 @@
+package com.clipers.clipers.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Pool real de un hilo y cola de una tarea, para poder llenarlo a voluntad
+ */
+class JobMatchingExecutorTest {
+
+    private JobService jobService;
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor pool;
+    private JobMatchingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        jobService = mock(JobService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(1);
+        pool.setMaxPoolSize(1);
+        pool.setQueueCapacity(1);
+        pool.initialize();
+        executor = new JobMatchingExecutor(jobService, pool, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void newSubmitForTheSameJobCancelsThePreviousOne() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        // La primera ejecución se queda bloqueada hasta que la interrumpan; la segunda termina en el acto
+        doAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }).doNothing().when(jobService).runAutomaticMatching("job-1");
+
+        executor.submit("job-1");
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        executor.submit("job-1");
+
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        verify(jobService, timeout(2000).times(2)).runAutomaticMatching("job-1");
+        assertEquals(1.0, meterRegistry.get("matching.jobs.cancelled").counter().count());
+    }
+
+    @Test
+    void taskSubmittedWhilePausedRunsOnceAfterResume() {
+        executor.pause(1, TimeUnit.SECONDS);
+        executor.submit("job-1");
+        executor.submit("job-1");
+
+        verify(jobService, after(200).never()).runAutomaticMatching("job-1");
+        assertEquals(1, executor.getPendingCount());
+
+        executor.resume();
+
+        verify(jobService, timeout(2000).times(1)).runAutomaticMatching("job-1");
+        verify(jobService, after(200).times(1)).runAutomaticMatching("job-1");
+    }
+
+    @Test
+    void taskRejectedByAFullQueueIsRerunByDrainDeferred() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(jobService).runAutomaticMatching("job-a");
+        doNothing().when(jobService).runAutomaticMatching("job-b");
+        doNothing().when(jobService).runAutomaticMatching("job-c");
+
+        // job-a ocupa el único hilo, job-b la única plaza de la cola y job-c se rechaza
+        executor.submit("job-a");
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        executor.submit("job-b");
+        executor.submit("job-c");
+        assertEquals(1.0, meterRegistry.get("matching.jobs.rejected").counter().count());
+
+        // Sin sitio en la cola drainDeferred no reenvía nada
+        executor.drainDeferred();
+        release.countDown();
+        verify(jobService, timeout(2000)).runAutomaticMatching("job-b");
+        verify(jobService, never()).runAutomaticMatching("job-c");
+
+        executor.drainDeferred();
+
+        verify(jobService, timeout(2000).times(1)).runAutomaticMatching("job-c");
+        assertEquals(1.0, meterRegistry.get("matching.jobs.rejected").counter().count());
+    }
+}
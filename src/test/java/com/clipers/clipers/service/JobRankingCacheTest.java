@@ -0,0 +1,125 @@
+package com.clipers.clipers.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobRankingCacheTest {
+
+    private final JobRankingCache cache = new JobRankingCache(3, 2, new SimpleMeterRegistry());
+
+    @Test
+    void collectorKeepsTopKByScoreThenUserId() {
+        JobRankingCache.Collector collector = cache.newCollector();
+        collector.offer(match("u5", 0.4));
+        collector.offer(match("u2", 0.9));
+        collector.offer(match("u3", 0.7));
+        collector.offer(match("u1", 0.7));
+        collector.offer(match("u4", 0.5));
+
+        JobRankingCache.Ranking ranking = collector.toRanking();
+
+        assertEquals(List.of("u2", "u1", "u3"), userIds(ranking));
+        assertFalse(ranking.isComplete());
+    }
+
+    @Test
+    void collectorIsCompleteWhenEveryMatchFits() {
+        JobRankingCache.Collector collector = cache.newCollector();
+        collector.offer(match("u1", 0.5));
+        collector.offer(match("u2", 0.6));
+
+        JobRankingCache.Ranking ranking = collector.toRanking();
+
+        assertEquals(List.of("u2", "u1"), userIds(ranking));
+        assertTrue(ranking.isComplete());
+    }
+
+    @Test
+    void storesRankingComputedWithoutConcurrentChanges() {
+        JobRankingCache.Ranking ranking = ranking("u1");
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-1", cache.generation(), ranking));
+
+        assertSame(ranking, cache.get("job-1"));
+    }
+
+    @Test
+    void rejectsRankingWhenJobChangedDuringComputation() {
+        long generation = cache.generation();
+        cache.evict("job-1");
+
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-1", generation, ranking("u1")));
+
+        assertNull(cache.get("job-1"));
+    }
+
+    @Test
+    void changesToOtherJobsDoNotRejectTheRanking() {
+        cache.evict("job-1");
+        long generation = cache.generation();
+        cache.evict("job-2");
+
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-1", generation, ranking("u1")));
+
+        assertNotNull(cache.get("job-1"));
+    }
+
+    @Test
+    void evictRemovesStoredRanking() {
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-1", cache.generation(), ranking("u1")));
+
+        cache.onRankingsChanged(new JobService.JobRankingsChangedEvent(List.of("job-1")));
+
+        assertNull(cache.get("job-1"));
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentlyUsedJobs() {
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-1", cache.generation(), ranking("u1")));
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-2", cache.generation(), ranking("u2")));
+        cache.get("job-1");
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-3", cache.generation(), ranking("u3")));
+
+        assertNotNull(cache.get("job-1"));
+        assertNull(cache.get("job-2"));
+        assertNotNull(cache.get("job-3"));
+    }
+
+    @Test
+    void forgottenInvalidationsRejectOlderComputationsConservatively() {
+        long before = cache.generation();
+        // cache-max-jobs=2: se recuerdan 8 invalidaciones; la novena olvida la primera
+        for (int i = 0; i < 9; i++) {
+            cache.evict("other-" + i);
+        }
+        long after = cache.generation();
+
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-1", before, ranking("u1")));
+        assertNull(cache.get("job-1"));
+
+        cache.onRankingComputed(new JobService.JobRankingComputedEvent("job-1", after, ranking("u1")));
+        assertNotNull(cache.get("job-1"));
+    }
+
+    private static JobRankingCache.RankedMatch match(String userId, double score) {
+        return new JobRankingCache.RankedMatch(userId, score, "", List.of());
+    }
+
+    private JobRankingCache.Ranking ranking(String userId) {
+        JobRankingCache.Collector collector = cache.newCollector();
+        collector.offer(match(userId, 0.5));
+        return collector.toRanking();
+    }
+
+    private static List<String> userIds(JobRankingCache.Ranking ranking) {
+        return ranking.getMatches().stream().map(JobRankingCache.RankedMatch::getUserId).toList();
+    }
+}
@@ -0,0 +1,146 @@
+package com.clipers.clipers.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchScorerTest {
+
+    private static final double[] GRID = {0.0, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9, 1.0};
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void pruningNeverDropsAPairThatReachesTheThreshold() {
+        FixedStrategy skills = new FixedStrategy("skills", 0.5, 1.0);
+        FixedStrategy experience = new FixedStrategy("experience", 0.3, 1.0);
+        FixedStrategy location = new FixedStrategy("location", 0.2, 1.0);
+        MatchScorer scorer = new MatchScorer(List.of(skills, experience, location), meterRegistry, 1);
+        MatchScorer.MatchScore score = scorer.newScore();
+        MatchScorer.Stats stats = scorer.newStats();
+
+        for (double s : GRID) {
+            for (double e : GRID) {
+                for (double l : GRID) {
+                    skills.value = s;
+                    experience.value = e;
+                    location.value = l;
+                    double full = s * 0.5 + e * 0.3 + l * 0.2;
+
+                    scorer.score(new MatchStrategy.Input(), score, stats);
+
+                    if (full >= MatchScorer.MIN_MATCH_SCORE) {
+                        assertFalse(score.isPruned(), "podado con score completo " + full);
+                        assertEquals(full, score.getOverallScore(), 1e-12);
+                    }
+                    if (score.isPruned()) {
+                        assertTrue(full < MatchScorer.MIN_MATCH_SCORE);
+                        assertTrue(score.getOverallScore() < MatchScorer.MIN_MATCH_SCORE);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void pruningRespectsMaxScoreOfPendingStrategies() {
+        Random random = new Random(42);
+        FixedStrategy first = new FixedStrategy("first", 0.6, 1.0);
+        FixedStrategy capped = new FixedStrategy("capped", 0.3, 0.5);
+        FixedStrategy last = new FixedStrategy("last", 0.4, 0.25);
+        MatchScorer scorer = new MatchScorer(List.of(first, capped, last), meterRegistry, 64);
+        MatchScorer.MatchScore score = scorer.newScore();
+        MatchScorer.Stats stats = scorer.newStats();
+
+        for (int i = 0; i < 10_000; i++) {
+            first.value = random.nextDouble();
+            capped.value = random.nextDouble() * 0.5;
+            last.value = random.nextDouble() * 0.25;
+            double full = first.value * 0.6 + capped.value * 0.3 + last.value * 0.4;
+
+            scorer.score(new MatchStrategy.Input(), score, stats);
+
+            assertEquals(full >= MatchScorer.MIN_MATCH_SCORE, !score.isPruned() && score.getOverallScore() >= MatchScorer.MIN_MATCH_SCORE,
+                    "score completo " + full);
+        }
+    }
+
+    @Test
+    void prunesAsSoonAsTheBoundFallsBelowTheThreshold() {
+        FixedStrategy skills = new FixedStrategy("skills", 0.5, 1.0);
+        FixedStrategy experience = new FixedStrategy("experience", 0.3, 1.0);
+        FixedStrategy location = new FixedStrategy("location", 0.2, 1.0);
+        MatchScorer scorer = new MatchScorer(List.of(skills, experience, location), meterRegistry, 1);
+        MatchScorer.MatchScore score = scorer.newScore();
+        MatchScorer.Stats stats = scorer.newStats();
+
+        // 0 + 0.3 + 0.2 = 0.5 todavía alcanza; tras experience = 0, la cota es 0.2
+        skills.value = 0.0;
+        experience.value = 0.0;
+        location.value = 1.0;
+        scorer.score(new MatchStrategy.Input(), score, stats);
+
+        assertTrue(score.isPruned());
+        assertEquals(0, location.calls);
+        assertEquals(1, stats.getPruned(1));
+
+        scorer.publish(stats);
+        assertEquals(1.0, meterRegistry.get("matching.strategy.pruned").tag("strategy", "experience").counter().count());
+        assertEquals(1.0, meterRegistry.get("matching.strategy.evaluations").tag("strategy", "skills").counter().count());
+        assertEquals(0.0, meterRegistry.get("matching.strategy.evaluations").tag("strategy", "location").counter().count());
+        assertEquals(0, stats.getPruned(1));
+    }
+
+    @Test
+    void copyIsIndependentOfTheReusedVector() {
+        FixedStrategy only = new FixedStrategy("only", 1.0, 1.0);
+        MatchScorer scorer = new MatchScorer(List.of(only), meterRegistry, 1);
+        MatchScorer.MatchScore score = scorer.newScore();
+        MatchScorer.Stats stats = scorer.newStats();
+
+        only.value = 0.8;
+        scorer.score(new MatchStrategy.Input(), score, stats);
+        MatchScorer.MatchScore copy = score.copy();
+        only.value = 0.4;
+        scorer.score(new MatchStrategy.Input(), score, stats);
+
+        assertEquals(0.8, copy.getOverallScore(), 1e-12);
+        assertEquals(0.8, copy.getScore(0), 1e-12);
+        assertEquals(0.4, score.getOverallScore(), 1e-12);
+    }
+
+    private static class FixedStrategy implements MatchStrategy {
+        private final String name;
+        private final double weight;
+        private final double maxScore;
+        private double value;
+        private int calls;
+
+        FixedStrategy(String name, double weight, double maxScore) {
+            this.name = name;
+            this.weight = weight;
+            this.maxScore = maxScore;
+        }
+
+        @Override
+        public String getName() { return name; }
+
+        @Override
+        public double getWeight() { return weight; }
+
+        @Override
+        public double getMaxScore() { return maxScore; }
+
+        @Override
+        public double score(Input input) {
+            calls++;
+            return value;
+        }
+    }
+}
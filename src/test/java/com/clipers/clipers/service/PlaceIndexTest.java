@@ -0,0 +1,144 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.Place;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaceIndexTest {
+
+    private static final int MADRID = 1;
+    private static final int GETAFE = 2;
+    private static final int TOLEDO = 3;
+    private static final int BARCELONA = 4;
+    private static final int CORDOBA_ES = 5;
+    private static final int CORDOBA_AR = 6;
+    private static final int BOGOTA = 7;
+
+    private final PlaceIndex index = new PlaceIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.load(List.of(
+                        place(MADRID, "Madrid", "ES", 40.4168, -3.7038, 3_300_000),
+                        place(GETAFE, "Getafe", "ES", 40.3083, -3.7327, 180_000),
+                        place(TOLEDO, "Toledo", "ES", 39.8628, -4.0273, 85_000),
+                        place(BARCELONA, "Barcelona", "ES", 41.3874, 2.1686, 1_600_000),
+                        place(CORDOBA_ES, "Córdoba", "ES", 37.8882, -4.7794, 325_000),
+                        place(CORDOBA_AR, "Córdoba", "AR", -31.4201, -64.1888, 1_390_000),
+                        place(BOGOTA, "Bogotá", "CO", 4.7110, -74.0721, 7_400_000)),
+                List.<Object[]>of(new Object[] {BOGOTA, "Santa Fe de Bogotá"}),
+                Map.of("espana", "ES", "argentina", "AR", "colombia", "CO"));
+    }
+
+    @Test
+    void resolvesNamesIgnoringAccentsAndCase() {
+        assertEquals(MADRID, index.resolve("madrid"));
+        assertEquals(BOGOTA, index.resolve("BOGOTA"));
+        assertEquals(BOGOTA, index.resolve("Santa Fe de Bogotá"));
+    }
+
+    @Test
+    void resolvesAmbiguousNamesByCountryOrPopulation() {
+        assertEquals(CORDOBA_AR, index.resolve("Córdoba"));
+        assertEquals(CORDOBA_ES, index.resolve("Córdoba, España"));
+        assertEquals(CORDOBA_ES, index.resolve("cordoba espana"));
+        assertEquals(CORDOBA_AR, index.resolve("Córdoba, Argentina"));
+    }
+
+    @Test
+    void unknownLocationsResolveToNull() {
+        assertNull(index.resolve("Atlántida"));
+        assertNull(index.resolve(" "));
+        assertNull(index.resolve(null));
+    }
+
+    @Test
+    void measuresDistanceBetweenPlaces() {
+        assertEquals(505, index.distanceKm(MADRID, BARCELONA), 5);
+        assertEquals(0, index.distanceKm(MADRID, MADRID), 1e-9);
+        assertTrue(Double.isNaN(index.distanceKm(MADRID, 99)));
+    }
+
+    @Test
+    void findsPlacesWithinRadius() {
+        assertEquals(Set.of(MADRID, GETAFE), index.placesWithin(MADRID, 25));
+        assertEquals(Set.of(MADRID, GETAFE, TOLEDO), index.placesWithin(MADRID, 100));
+        assertEquals(Set.of(MADRID, GETAFE, TOLEDO, BARCELONA, CORDOBA_ES), index.placesWithin(MADRID, 600));
+        assertEquals(Set.of(), index.placesWithin(99, 100));
+    }
+
+    @Test
+    void bucketSearchMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Place> places = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            double latitude;
+            double longitude;
+            if (id % 4 == 0) {
+                // Cerca del antimeridiano, donde las cubetas dan la vuelta
+                latitude = -60 + random.nextDouble() * 120;
+                longitude = random.nextBoolean() ? 179 + random.nextDouble() : -180 + random.nextDouble();
+            } else if (id % 4 == 1) {
+                // Cerca de un polo, donde las celdas se estrechan
+                latitude = 80 + random.nextDouble() * 10;
+                longitude = -180 + random.nextDouble() * 360;
+            } else {
+                latitude = 36 + random.nextDouble() * 8;
+                longitude = -9 + random.nextDouble() * 12;
+            }
+            places.add(place(id, "lugar " + id, "ES", latitude, longitude, 0));
+        }
+        index.load(places, List.of(), Map.of());
+
+        for (int i = 0; i < 300; i++) {
+            int center = 1 + random.nextInt(places.size());
+            double radiusKm = 5 + random.nextDouble() * 300;
+            Set<Integer> expected = new HashSet<>();
+            for (Place place : places) {
+                if (index.distanceKm(center, place.getId()) <= radiusKm) {
+                    expected.add(place.getId());
+                }
+            }
+            assertEquals(expected, index.placesWithin(center, radiusKm), "centro " + center + ", radio " + radiusKm);
+        }
+    }
+
+    @Test
+    void geohashMatchesReferenceEncoding() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", Geohash.encode(42.605, -5.603, 5));
+        assertTrue(Geohash.encode(40.4168, -3.7038, 8).startsWith(Geohash.encode(40.4168, -3.7038, 4)));
+    }
+
+    @Test
+    void geohashCellSizesFollowBitSplit() {
+        // Precisión 4: 20 bits, 10 de latitud y 10 de longitud
+        assertEquals(180.0 / 1024, Geohash.cellHeight(4), 1e-12);
+        assertEquals(360.0 / 1024, Geohash.cellWidth(4), 1e-12);
+        // Precisión 5: 25 bits, 12 de latitud y 13 de longitud
+        assertEquals(180.0 / 4096, Geohash.cellHeight(5), 1e-12);
+        assertEquals(360.0 / 8192, Geohash.cellWidth(5), 1e-12);
+    }
+
+    private static Place place(int id, String name, String country, double latitude, double longitude, int population) {
+        Place place = new Place();
+        place.setId(id);
+        place.setName(name);
+        place.setCountry(country);
+        place.setLatitude(latitude);
+        place.setLongitude(longitude);
+        place.setPopulation(population);
+        return place;
+    }
+}
@@ -0,0 +1,180 @@
+package com.clipers.clipers.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostLikeCounterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private PostLikeCounter counter;
+    private final List<List<Object[]>> flushed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        counter = new PostLikeCounter(jdbcTemplate, transactionManager, meterRegistry);
+
+        when(jdbcTemplate.batchUpdate(argThat(PostLikeCounterTest::isFlush), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            flushed.add(new ArrayList<>(batch));
+            return new int[batch.size()];
+        });
+    }
+
+    @Test
+    void flushAppliesSummedDeltasInIdOrder() {
+        counter.add("post-b", 1);
+        counter.add("post-a", 1);
+        counter.add("post-a", 1);
+        counter.add("post-c", 1);
+        counter.add("post-c", -1);
+
+        counter.flush();
+
+        assertEquals(1, flushed.size());
+        List<Object[]> batch = flushed.get(0);
+        assertEquals(2, batch.size());
+        assertArrayEquals(new Object[] {2L, "post-a"}, batch.get(0));
+        assertArrayEquals(new Object[] {1L, "post-b"}, batch.get(1));
+        assertEquals(2.0, meterRegistry.get("posts.likes.flushed").counter().count());
+    }
+
+    @Test
+    void flushWithoutDeltasDoesNotTouchTheDatabase() {
+        counter.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyList());
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForTheNextOne() {
+        when(jdbcTemplate.batchUpdate(argThat(PostLikeCounterTest::isFlush), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"))
+                .thenAnswer(invocation -> {
+                    flushed.add(new ArrayList<>(invocation.<List<Object[]>>getArgument(1)));
+                    return new int[1];
+                });
+        counter.add("post-a", 3);
+
+        counter.flush();
+        counter.add("post-a", 1);
+        counter.flush();
+
+        assertEquals(1, flushed.size());
+        assertArrayEquals(new Object[] {4L, "post-a"}, flushed.get(0).get(0));
+        assertEquals(1.0, meterRegistry.get("posts.likes.flush.failures").counter().count());
+    }
+
+    @Test
+    void lateAddsToARetiredAdderAreFlushedNextTime() {
+        counter.add("post-a", 1);
+        // Un hilo que ya tenía el sumador cuando el volcado lo sacó del mapa
+        LongAdder inFlight = pending().get("post-a");
+
+        counter.flush();
+        inFlight.add(2);
+        counter.flush();
+
+        assertEquals(2, flushed.size());
+        assertArrayEquals(new Object[] {1L, "post-a"}, flushed.get(0).get(0));
+        assertArrayEquals(new Object[] {2L, "post-a"}, flushed.get(1).get(0));
+    }
+
+    @Test
+    void reconcileRecountsFlushedPostsOnce() {
+        ArgumentCaptor<List<Object[]>> reconciled = reconcileCaptor(new int[] {1, 0});
+        counter.add("post-b", 1);
+        counter.add("post-a", 1);
+        counter.flush();
+
+        counter.reconcile();
+        counter.reconcile();
+
+        verify(jdbcTemplate).batchUpdate(argThat(PostLikeCounterTest::isReconcile), reconciled.capture());
+        List<Object[]> batch = reconciled.getValue();
+        assertArrayEquals(new Object[] {"post-a"}, batch.get(0));
+        assertArrayEquals(new Object[] {"post-b"}, batch.get(1));
+        assertEquals(1.0, meterRegistry.get("posts.likes.reconciled").counter().count());
+    }
+
+    @Test
+    void reconcileSkipsPostsWithPendingDeltas() {
+        counter.add("post-a", 1);
+        counter.flush();
+        when(jdbcTemplate.batchUpdate(argThat(PostLikeCounterTest::isFlush), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"));
+        counter.add("post-a", 1);
+
+        counter.reconcile();
+
+        verify(jdbcTemplate, never()).batchUpdate(argThat(PostLikeCounterTest::isReconcile), anyList());
+    }
+
+    @Test
+    void failedReconcileIsRetried() {
+        when(jdbcTemplate.batchUpdate(argThat(PostLikeCounterTest::isReconcile), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"))
+                .thenReturn(new int[] {1});
+        counter.add("post-a", 1);
+        counter.flush();
+
+        counter.reconcile();
+        counter.reconcile();
+
+        assertEquals(1.0, meterRegistry.get("posts.likes.reconciled").counter().count());
+    }
+
+    @Test
+    void reconcileAllCountsCorrectedPosts() {
+        when(jdbcTemplate.update(argThat((String sql) -> sql.contains("LEFT JOIN post_likes")))).thenReturn(3);
+
+        counter.reconcileAll();
+
+        assertEquals(3.0, meterRegistry.get("posts.likes.reconciled").counter().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, LongAdder> pending() {
+        return (Map<String, LongAdder>) ReflectionTestUtils.getField(counter, "pending");
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<Object[]>> reconcileCaptor(int[] counts) {
+        when(jdbcTemplate.batchUpdate(argThat(PostLikeCounterTest::isReconcile), anyList())).thenReturn(counts);
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static boolean isFlush(String sql) {
+        return sql != null && sql.contains("likes = likes + ?");
+    }
+
+    private static boolean isReconcile(String sql) {
+        return sql != null && sql.contains("WHERE p.id = ?");
+    }
+}
@@ -0,0 +1,202 @@
+package com.clipers.clipers.service;
+
+import com.clipers.clipers.entity.Cliper;
+import com.clipers.clipers.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Almacenamiento por contenido contra PostgreSQL real: deduplicación y contador de referencias
+ * del blob, y recolección de blobs liberados y de archivos sin fila tras el periodo de gracia
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(VideoStorageService.class)
+@Testcontainers(disabledWithoutDocker = true)
+class VideoStorageServiceTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final byte[] VIDEO = "contenido del video".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private VideoStorageService videoStorageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    Path uploadDir;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(videoStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(videoStorageService, "maxVideoSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(videoStorageService, "gcGraceMinutes", 60L);
+
+        user = new User();
+        user.setEmail("ana@example.com");
+        user.setPassword("secret");
+        user.setFirstName("Ana");
+        user.setLastName("Pérez");
+        entityManager.persist(user);
+    }
+
+    @Test
+    void storesRepeatedContentOnceAndCountsReferences() throws Exception {
+        VideoStorageService.StoredVideo first = videoStorageService.store(stage("a.mp4"));
+        VideoStorageService.StoredVideo second = videoStorageService.store(stage("b.MP4"));
+
+        assertFalse(first.isDuplicate());
+        assertTrue(second.isDuplicate());
+        assertEquals(sha256(VIDEO), first.getSha256());
+        assertEquals(first.getPath(), second.getPath());
+        assertArrayEquals(VIDEO, Files.readAllBytes(first.getPath()));
+        assertEquals(2, referenceCount(first.getSha256()));
+        assertEquals(List.of(), filesIn("tmp"));
+    }
+
+    @Test
+    void discardRemovesAStagedVideoThatWasNotStored() throws Exception {
+        VideoStorageService.StagedVideo staged = stage("a.mp4");
+        assertTrue(Files.exists(staged.getPath()));
+
+        videoStorageService.discard(staged);
+
+        assertFalse(Files.exists(staged.getPath()));
+    }
+
+    @Test
+    void releasedBlobIsCollectedOnlyAfterTheGracePeriod() throws Exception {
+        VideoStorageService.StoredVideo stored = videoStorageService.store(stage("a.mp4"));
+        videoStorageService.release(stored.getSha256());
+        assertEquals(0, referenceCount(stored.getSha256()));
+
+        videoStorageService.collectGarbage();
+        assertTrue(Files.exists(stored.getPath()));
+
+        jdbcTemplate.update("UPDATE video_blobs SET released_at = now() - interval '2 hours' WHERE sha256 = ?",
+                stored.getSha256());
+        videoStorageService.collectGarbage();
+
+        assertFalse(Files.exists(stored.getPath()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM video_blobs", Integer.class));
+    }
+
+    @Test
+    void blobReferencedByACliperSurvivesCollection() throws Exception {
+        VideoStorageService.StoredVideo stored = videoStorageService.store(stage("a.mp4"));
+        persistCliper(stored.getSha256());
+        makeOld(stored.getPath());
+
+        videoStorageService.collectGarbage();
+
+        assertTrue(Files.exists(stored.getPath()));
+        assertEquals(1, referenceCount(stored.getSha256()));
+    }
+
+    @Test
+    void reconcileDropsReferencesThatNoCliperHolds() throws Exception {
+        VideoStorageService.StoredVideo stored = videoStorageService.store(stage("a.mp4"));
+        videoStorageService.store(stage("b.mp4"));
+        persistCliper(stored.getSha256());
+
+        videoStorageService.collectGarbage();
+
+        assertEquals(1, referenceCount(stored.getSha256()));
+    }
+
+    @Test
+    void staleFileWithoutRowIsDeleted() throws Exception {
+        Path file = Files.createDirectories(uploadDir.resolve("videos")).resolve(sha256(VIDEO) + ".mp4");
+        Files.write(file, VIDEO);
+        makeOld(file);
+
+        videoStorageService.collectGarbage();
+
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void duplicateUploadProtectsAStaleFileUntilItsRowCommits() throws Exception {
+        // Archivo que quedó de una subida revertida: sin fila y más antiguo que el periodo de gracia
+        Path file = Files.createDirectories(uploadDir.resolve("videos")).resolve(sha256(VIDEO) + ".mp4");
+        Files.write(file, VIDEO);
+        makeOld(file);
+
+        VideoStorageService.StoredVideo stored = videoStorageService.store(stage("a.mp4"));
+        assertTrue(stored.isDuplicate());
+        // La recolección corre en otra transacción y aún no ve la fila que acaba de crear la subida
+        jdbcTemplate.update("DELETE FROM video_blobs");
+
+        videoStorageService.collectGarbage();
+
+        assertTrue(Files.exists(file));
+    }
+
+    private VideoStorageService.StagedVideo stage(String fileName) {
+        return videoStorageService.stage(new ByteArrayInputStream(VIDEO), fileName);
+    }
+
+    private void persistCliper(String contentHash) {
+        Cliper cliper = new Cliper("Mi cliper", "Descripción", "/videos/cliper.mp4", 30, user);
+        cliper.setContentHash(contentHash);
+        entityManager.persist(cliper);
+        entityManager.flush();
+    }
+
+    private int referenceCount(String sha256) {
+        return jdbcTemplate.queryForObject("SELECT reference_count FROM video_blobs WHERE sha256 = ?",
+                Integer.class, sha256);
+    }
+
+    private List<Path> filesIn(String dir) throws Exception {
+        try (var files = Files.list(uploadDir.resolve(dir))) {
+            return files.toList();
+        }
+    }
+
+    private static void makeOld(Path file) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}